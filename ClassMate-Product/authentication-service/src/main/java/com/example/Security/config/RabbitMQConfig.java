@@ -4,10 +4,6 @@ import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.TopicExchange;
-import org.springframework.amqp.rabbit.connection.ConnectionFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
-import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.beans.factory.annotation.Value;
@@ -45,6 +41,9 @@ public class RabbitMQConfig {
     @Value("${rabbitmq.queue.create-user-forum-service-queue}")
     private String createUserForumServiceQueue;
 
+    @Value("${rabbitmq.queue.create-user-chat-service-queue}")
+    private String createUserChatServiceQueue;
+
     @Value("${rabbitmq.chat-exchange.routing-key}")
     private String addChatroomRoutingKey;
 
@@ -139,6 +138,9 @@ public class RabbitMQConfig {
     @Bean
     public Queue createUserForumServiceQueue() { return new Queue(createUserForumServiceQueue, true); }
 
+    @Bean
+    public Queue createUserChatServiceQueue() { return new Queue(createUserChatServiceQueue, true); }
+
     @Bean
     public Queue messageSenderRequestQueue() {
         return new Queue(messageSenderNameRequestQueue, true);
@@ -262,6 +264,14 @@ public class RabbitMQConfig {
                 .with(createUserRoutingKey);
     }
 
+    @Bean
+    public Binding createUserChatServiceBinding(){
+        return BindingBuilder
+                .bind(createUserChatServiceQueue())
+                .to(createUserExchange())
+                .with(createUserRoutingKey);
+    }
+
     // Ban members
     @Bean
     public Binding banUserDeleteMemberBinding() {
@@ -270,17 +280,4 @@ public class RabbitMQConfig {
                 .to(forumExchange())
                 .with(banUserDeleteMemberRoutingKey);
     }
-
-
-    @Bean
-    public MessageConverter converter() {
-        return new Jackson2JsonMessageConverter();
-    }
-
-    @Bean
-    public RabbitTemplate amqpTemplate(ConnectionFactory connectionFactory) {
-        RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(converter());
-        return rabbitTemplate;
-    }
 }
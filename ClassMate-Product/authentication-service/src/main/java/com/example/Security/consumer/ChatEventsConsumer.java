@@ -1,5 +1,6 @@
 package com.example.Security.consumer;
 
+import com.classmate.messaging.dedup.MessageDeduplicator;
 import com.example.Security.dto.chat.AddChatroomDTO;
 import com.example.Security.entities.User;
 import com.example.Security.exception.ResourceWithNumericValueDoesNotExistException;
@@ -9,21 +10,28 @@ import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
 @Service
 public class ChatEventsConsumer {
 
     private final UserRepository userRepository;
+    private final MessageDeduplicator messageDeduplicator;
 
 
-    public ChatEventsConsumer(UserRepository userRepository) {
+    public ChatEventsConsumer(UserRepository userRepository, MessageDeduplicator messageDeduplicator) {
         this.userRepository = userRepository;
+        this.messageDeduplicator = messageDeduplicator;
     }
 
     @Transactional
     @RabbitListener(queues = "${rabbitmq.queue.add-chatroom-queue}")
-    public void addChatroomToUser(AddChatroomDTO addChatroomDTO){
+    public void addChatroomToUser(AddChatroomDTO addChatroomDTO, @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId){
+        if (!messageDeduplicator.firstDelivery(messageId)) {
+            return;
+        }
         System.out.println(String.format("Adding chatroom %s to user %d", addChatroomDTO.getChatroomId(), addChatroomDTO.getUserId()));
 
         User user = userRepository.findById(addChatroomDTO.getUserId())
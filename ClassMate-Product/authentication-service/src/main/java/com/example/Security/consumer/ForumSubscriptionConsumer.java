@@ -1,5 +1,6 @@
 package com.example.Security.consumer;
 
+import com.classmate.messaging.dedup.MessageDeduplicator;
 import com.example.Security.dto.forum.ForumDeletionDTO;
 import com.example.Security.dto.forum.ForumSubscriptionDTO;
 import com.example.Security.dto.user.BanUserDeleteMemberEventDTO;
@@ -10,9 +11,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -22,82 +24,89 @@ public class ForumSubscriptionConsumer {
     private static final Logger LOGGER = LoggerFactory.getLogger(ForumSubscriptionConsumer.class);
 
     private final UserRepository userRepository;
+    private final MessageDeduplicator messageDeduplicator;
 
-    public ForumSubscriptionConsumer(UserRepository userRepository) {
+    public ForumSubscriptionConsumer(UserRepository userRepository, MessageDeduplicator messageDeduplicator) {
         this.userRepository = userRepository;
+        this.messageDeduplicator = messageDeduplicator;
     }
 
     // Ban members
     @Transactional
     @RabbitListener(queues = "${rabbitmq.queue.ban-user-delete-member-queue}")
-    public void handleBanUserDeleteMemberEvent(BanUserDeleteMemberEventDTO banUserDeleteMemberEventDTO) {
+    public void handleBanUserDeleteMemberEvent(BanUserDeleteMemberEventDTO banUserDeleteMemberEventDTO,
+                                               @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId) {
+        if (!messageDeduplicator.firstDelivery(messageId)) {
+            return;
+        }
         LOGGER.info("Banning user event");
 
-        // Fetch the user by ID
-        User user = userRepository.findById(banUserDeleteMemberEventDTO.getUserIdToBan())
-                .orElseThrow(() -> new RuntimeException(String.format("User to ban not found with ID: %s", banUserDeleteMemberEventDTO.getUserIdToBan())));
-
+        Long userId = banUserDeleteMemberEventDTO.getUserIdToBan();
         Long forumId = banUserDeleteMemberEventDTO.getForumId();
 
-        // Check if the user is an admin of the forum before removing them
-        if (user.isAlreadyAdminOfForum(forumId)) {
-            user.removeAdminFromForum(forumId);
-            LOGGER.info("User {} removed as admin from forum {}", user.getId(), forumId);
+        if (userRepository.deleteForumAdmin(userId, forumId) > 0) {
+            LOGGER.info("User {} removed as admin from forum {}", userId, forumId);
         } else {
-            LOGGER.warn("User {} is not an admin of forum {}", user.getId(), forumId);
+            LOGGER.warn("User {} is not an admin of forum {}", userId, forumId);
         }
 
-        // Check if the user is subscribed to the forum before removing them
-        if (user.isAlreadySubscribedToForum(forumId)) {
-            user.removeSubscriptionFromForum(forumId);
-            LOGGER.info("User {} unsubscribed from forum {}", user.getId(), forumId);
+        if (userRepository.deleteForumSubscription(userId, forumId) > 0) {
+            LOGGER.info("User {} unsubscribed from forum {}", userId, forumId);
         } else {
-            LOGGER.warn("User {} is not subscribed to forum {}", user.getId(), forumId);
+            LOGGER.warn("User {} is not subscribed to forum {}", userId, forumId);
         }
     }
 
 
     @Transactional
     @RabbitListener(queues = "${rabbitmq.queue.subscription-queue}")
-    public void subscribeToForum(ForumSubscriptionDTO forumSubscriptionDTO) {
-        handleSubscription(forumSubscriptionDTO, this::subscribeToForumInternal);
+    public void subscribeToForum(ForumSubscriptionDTO forumSubscriptionDTO, @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId) {
+        handleSubscription(messageId, forumSubscriptionDTO, this::subscribeToForumInternal);
     }
 
     @Transactional
     @RabbitListener(queues = "${rabbitmq.queue.add-admin-queue}")
-    public void addAdminToForum(ForumSubscriptionDTO forumSubscriptionDTO) {
-        handleSubscription(forumSubscriptionDTO, this::addAdminToForumInternal);
+    public void addAdminToForum(ForumSubscriptionDTO forumSubscriptionDTO, @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId) {
+        handleSubscription(messageId, forumSubscriptionDTO, this::addAdminToForumInternal);
     }
 
     @Transactional
     @RabbitListener(queues = "${rabbitmq.queue.remove-member-queue}")
-    public void removeMemberFromForum(ForumSubscriptionDTO forumSubscriptionDTO) {
-        handleSubscription(forumSubscriptionDTO, this::removeMemberFromForumInternal);
+    public void removeMemberFromForum(ForumSubscriptionDTO forumSubscriptionDTO, @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId) {
+        handleSubscription(messageId, forumSubscriptionDTO, this::removeMemberFromForumInternal);
     }
 
     @Transactional
     @RabbitListener(queues = "${rabbitmq.queue.remove-admin-queue}")
-    public void removeAdminFromForum(ForumSubscriptionDTO forumSubscriptionDTO) {
-        handleSubscription(forumSubscriptionDTO, this::removeAdminFromForumInternal);
+    public void removeAdminFromForum(ForumSubscriptionDTO forumSubscriptionDTO, @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId) {
+        handleSubscription(messageId, forumSubscriptionDTO, this::removeAdminFromForumInternal);
     }
 
     @Transactional
     @RabbitListener(queues = "${rabbitmq.queue.creator-update-queue}")
-    public void updateCreator(ForumSubscriptionDTO forumSubscriptionDTO) {
-        handleSubscription(forumSubscriptionDTO, this::updateCreatorInternal);
+    public void updateCreator(ForumSubscriptionDTO forumSubscriptionDTO, @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId) {
+        handleSubscription(messageId, forumSubscriptionDTO, this::updateCreatorInternal);
     }
 
     @Transactional
     @RabbitListener(queues = "${rabbitmq.queue.delete-forum-subscription-queue}")
-    public void handleForumSubscriptionDeletion(ForumDeletionDTO forumDeletionDTO){
+    public void handleForumSubscriptionDeletion(ForumDeletionDTO forumDeletionDTO, @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId){
+        if (!messageDeduplicator.firstDelivery(messageId)) {
+            return;
+        }
         Long deletedForumId = forumDeletionDTO.getForumId();
         LOGGER.info(String.format("Removing forums subscriptions of forum: '%d'", deletedForumId));
-        handleForumDeletionFromSubscribedUsers(deletedForumId);
-        handleForumDeletionFromAdmindUsers(deletedForumId);
-        handleForumDeletionFromCreatorUser(deletedForumId);
+        int subscriptions = userRepository.deleteForumSubscriptions(deletedForumId);
+        int admins = userRepository.deleteForumAdmins(deletedForumId);
+        int creators = userRepository.deleteForumCreators(deletedForumId);
+        LOGGER.info(String.format("Removed %d subscriptions, %d admins and %d creators of forum: '%d'",
+                subscriptions, admins, creators, deletedForumId));
     }
 
-    private void handleSubscription(ForumSubscriptionDTO forumSubscriptionDTO, SubscriptionHandler handler) {
+    private void handleSubscription(String messageId, ForumSubscriptionDTO forumSubscriptionDTO, SubscriptionHandler handler) {
+        if (!messageDeduplicator.firstDelivery(messageId)) {
+            return;
+        }
         Long userId = forumSubscriptionDTO.getUserId();
         Long forumId = forumSubscriptionDTO.getForumId();
         Optional<User> optionalUser = userRepository.findById(userId);
@@ -149,29 +158,4 @@ public class ForumSubscriptionConsumer {
         void handle(User user, Long forumId);
     }
 
-    private void handleForumDeletionFromSubscribedUsers(Long deletedForumId){
-        List<User> usersSubscribed = this.userRepository.findByForumsSubscribedContaining(deletedForumId);
-        usersSubscribed
-                .forEach(u -> u.removeForumSubscription(deletedForumId));
-        userRepository.saveAll(usersSubscribed);
-    }
-
-    private void handleForumDeletionFromAdmindUsers(Long deletedForumId){
-        List<User> adminUsers = this.userRepository.findByForumsAdminContaining(deletedForumId);
-        adminUsers
-                .forEach(u -> u.removeForumSubscription(deletedForumId));
-        userRepository.saveAll(adminUsers);
-    }
-
-    private void handleForumDeletionFromCreatorUser(Long deletedForumId){
-        List<User> forumCreatorsUsers = this.userRepository.findByForumsCreatedContaining(deletedForumId);
-
-        forumCreatorsUsers
-                .forEach(u -> {
-                    u.removeForumCreated(deletedForumId);
-
-                });
-        userRepository.saveAll(forumCreatorsUsers);
-    }
-
 }
@@ -9,6 +9,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -25,8 +26,13 @@ public class UserController {
 
 
     @GetMapping("/{forumId}")
-    public ResponseEntity<List<UserProfileWithRoleDTO>> getUsersFromForum(@PathVariable Long forumId) {
-        List<UserProfileWithRoleDTO> users = userService.getUsersFromForum(forumId);
+    public ResponseEntity<List<UserProfileWithRoleDTO>> getUsersFromForum(@PathVariable Long forumId,
+                                                                          @RequestParam(required = false) Integer page,
+                                                                          @RequestParam(required = false) Integer size) {
+        if ((page != null && page < 0) || (size != null && size <= 0)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        List<UserProfileWithRoleDTO> users = userService.getUsersFromForum(forumId, page, size);
         return new ResponseEntity<>(users, HttpStatus.OK);
     }
 
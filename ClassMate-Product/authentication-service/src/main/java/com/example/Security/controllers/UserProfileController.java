@@ -5,12 +5,15 @@ import com.example.Security.dto.user.profile.UserProfileResponseDTO;
 import com.example.Security.dto.user.profile.UserProfileUpdateDTO;
 import com.example.Security.dto.user.profile.UserProfileWithRoleDTO;
 import com.example.Security.entities.Attachment;
+import com.example.Security.entities.AttachmentThumbnail;
+import com.example.Security.entities.ThumbnailSize;
 import com.example.Security.exception.ResourceWithNumericValueDoesNotExistException;
 import com.example.Security.publisher.CreateUserPublisher;
 import com.example.Security.service.UserProfileService;
 import com.example.Security.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -19,6 +22,8 @@ import org.springframework.web.bind.annotation.*;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/profiles")
@@ -26,6 +31,9 @@ import java.util.List;
 public class UserProfileController {
     private final UserProfileService service;
     private final UserService userService;
+    private static final CacheControl PHOTO_CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable();
+    // The original served in place of a missing thumbnail is revalidated, so the thumbnail replaces it once it exists
+    private static final CacheControl THUMBNAIL_FALLBACK_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<UserProfileResponseDTO> createUserProfile(@ModelAttribute UserProfileRequestDTO requestDTO) {
@@ -50,13 +58,21 @@ public class UserProfileController {
     }
 
     @GetMapping("/photo/{photoId}")
-    public ResponseEntity<ByteArrayResource> getProfilePhoto(@PathVariable Long photoId) {
+    public ResponseEntity<ByteArrayResource> getProfilePhoto(@PathVariable Long photoId,
+                                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // A photo id always refers to the same bytes (updates create a new attachment), so the id is a valid ETag
+        String eTag = String.format("\"%d\"", photoId);
+        if (eTag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(PHOTO_CACHE_CONTROL).build();
+        }
         try {
             Attachment photo = service.getProfilePhotoById(photoId);
             ByteArrayResource resource = new ByteArrayResource(photo.getBytes());
 
             return ResponseEntity.ok()
                     .contentType(MediaType.parseMediaType(photo.getContentType()))
+                    .eTag(eTag)
+                    .cacheControl(PHOTO_CACHE_CONTROL)
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + photo.getOriginalFilename() + "\"")
                     .body(resource);
         } catch (IllegalArgumentException e) {
@@ -65,6 +81,46 @@ public class UserProfileController {
         }
     }
 
+    @GetMapping("/photo/{photoId}/thumbnail/{size}")
+    public ResponseEntity<ByteArrayResource> getProfilePhotoThumbnail(@PathVariable Long photoId,
+                                                                      @PathVariable String size,
+                                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ThumbnailSize thumbnailSize;
+        try {
+            thumbnailSize = ThumbnailSize.fromPathName(size);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        String eTag = String.format("\"%d-%s\"", photoId, thumbnailSize.getPathName());
+        if (eTag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(PHOTO_CACHE_CONTROL).build();
+        }
+
+        Optional<AttachmentThumbnail> thumbnail = service.getProfilePhotoThumbnail(photoId, thumbnailSize);
+        if (thumbnail.isEmpty()) {
+            // Not a decodable image: fall back to the original, under a validator of its own
+            String fallbackETag = String.format("\"%d-%s-original\"", photoId, thumbnailSize.getPathName());
+            if (fallbackETag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(fallbackETag).cacheControl(THUMBNAIL_FALLBACK_CACHE_CONTROL).build();
+            }
+            ResponseEntity<ByteArrayResource> original = getProfilePhoto(photoId, null);
+            if (!original.getStatusCode().is2xxSuccessful()) {
+                return original;
+            }
+            return ResponseEntity.ok()
+                    .headers(original.getHeaders())
+                    .eTag(fallbackETag)
+                    .cacheControl(THUMBNAIL_FALLBACK_CACHE_CONTROL)
+                    .body(original.getBody());
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(thumbnail.get().getContentType()))
+                .eTag(eTag)
+                .cacheControl(PHOTO_CACHE_CONTROL)
+                .body(new ByteArrayResource(thumbnail.get().getBytes()));
+    }
+
     @GetMapping("/search/{nickname}")
     public ResponseEntity<List<UserProfileResponseDTO>> searchUserByNickname(
             @PathVariable("nickname") String nickname,
@@ -78,8 +134,12 @@ public class UserProfileController {
 
     @GetMapping("/search/findMultiple")
     public ResponseEntity<List<UserProfileResponseDTO>> findMulitpleUsers(@RequestParam("userId") List<Long> userIds){
-        List<UserProfileResponseDTO> users = userService.findMultipleUsers(userIds);
-        return new ResponseEntity<>(users, HttpStatus.OK);
+        try {
+            List<UserProfileResponseDTO> users = userService.findMultipleUsers(userIds);
+            return new ResponseEntity<>(users, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
     }
 
     @GetMapping("/search/profileSearch/{userId}")
@@ -90,8 +150,13 @@ public class UserProfileController {
 
     @GetMapping("/search/forumMembers/{forumId}")
     public ResponseEntity<List<UserProfileWithRoleDTO>> findForumMembers(@PathVariable("forumId") Long forumId,
-                                                                         @RequestParam("q") String nicknameQuery){
-        List<UserProfileWithRoleDTO> members = userService.searchUsersInForum(forumId, nicknameQuery);
+                                                                         @RequestParam("q") String nicknameQuery,
+                                                                         @RequestParam(required = false) Integer page,
+                                                                         @RequestParam(required = false) Integer size){
+        if ((page != null && page < 0) || (size != null && size <= 0)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        List<UserProfileWithRoleDTO> members = userService.searchUsersInForum(forumId, nicknameQuery, page, size);
         return new ResponseEntity<>(members, HttpStatus.OK);
     }
 
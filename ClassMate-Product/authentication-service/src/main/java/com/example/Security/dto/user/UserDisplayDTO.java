@@ -12,4 +12,5 @@ import lombok.NoArgsConstructor;
 public class UserDisplayDTO {
     private Long userId;
     private String nickname;
+    private Long photoId;
 }
@@ -12,4 +12,5 @@ public class ProfilePhotoDTO {
     private String originalFilename;
     private String contentType;
     private Long size;
+    private String thumbnailUrl;
 }
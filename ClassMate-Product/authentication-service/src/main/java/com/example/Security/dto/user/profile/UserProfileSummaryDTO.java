@@ -0,0 +1,24 @@
+package com.example.Security.dto.user.profile;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Flat row returned by the batch profile lookups. Carries the photo metadata
+ * but never the photo bytes, so a single query can serve many users.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProfileSummaryDTO {
+    private Long userId;
+    private String nickname;
+    private String description;
+    private Long photoId;
+    private String photoOriginalFilename;
+    private String photoContentType;
+    private Long photoSize;
+}
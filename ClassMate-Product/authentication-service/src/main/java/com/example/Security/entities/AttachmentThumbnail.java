@@ -0,0 +1,40 @@
+package com.example.Security.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "attachment_thumbnails",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"attachment_id", "thumbnail_size"}))
+public class AttachmentThumbnail {
+    // Rows are inserted by AttachmentThumbnailRepository.insertIfAbsent, which draws ids from this sequence
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attachment_thumbnails_seq")
+    @SequenceGenerator(name = "attachment_thumbnails_seq", sequenceName = "attachment_thumbnails_seq", allocationSize = 50)
+    private Long id;
+
+    // Plain id instead of a relation so reading a thumbnail never touches the original bytes
+    @Column(name = "attachment_id", nullable = false)
+    private Long attachmentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "thumbnail_size", nullable = false)
+    private ThumbnailSize thumbnailSize;
+
+    // Null when the original is not a decodable image, so it is not decoded again on every request
+    @Lob
+    private byte[] bytes;
+
+    @Column
+    private String contentType;
+
+    @Column
+    private Long size;
+}
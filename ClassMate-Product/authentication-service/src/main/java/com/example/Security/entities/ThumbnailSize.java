@@ -0,0 +1,30 @@
+package com.example.Security.entities;
+
+public enum ThumbnailSize {
+    SMALL(40),
+    MEDIUM(96),
+    LARGE(256);
+
+    private final int pixels;
+
+    ThumbnailSize(int pixels) {
+        this.pixels = pixels;
+    }
+
+    public int getPixels() {
+        return pixels;
+    }
+
+    public String getPathName() {
+        return name().toLowerCase();
+    }
+
+    public static ThumbnailSize fromPathName(String pathName) {
+        for (ThumbnailSize size : values()) {
+            if (size.getPathName().equalsIgnoreCase(pathName)) {
+                return size;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Unknown thumbnail size '%s'", pathName));
+    }
+}
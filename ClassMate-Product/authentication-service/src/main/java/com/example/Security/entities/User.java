@@ -39,17 +39,20 @@ public class User implements UserDetails {
     private UserProfile userProfile;
 
     @ElementCollection
-    @CollectionTable(name = "forums_created", joinColumns = @JoinColumn(name = "user_id"))
+    @CollectionTable(name = "forums_created", joinColumns = @JoinColumn(name = "user_id"),
+            indexes = @Index(name = "idx_forums_created_forum_id", columnList = "forum_id"))
     @Column(name = "forum_id")
     private List<Long> forumsCreated;
 
     @ElementCollection
-    @CollectionTable(name = "forums_subscribed", joinColumns = @JoinColumn(name = "user_id"))
+    @CollectionTable(name = "forums_subscribed", joinColumns = @JoinColumn(name = "user_id"),
+            indexes = @Index(name = "idx_forums_subscribed_forum_id", columnList = "forum_id"))
     @Column(name = "forum_id")
     private List<Long> forumsSubscribed;
 
     @ElementCollection
-    @CollectionTable(name = "forums_admin", joinColumns = @JoinColumn(name = "user_id"))
+    @CollectionTable(name = "forums_admin", joinColumns = @JoinColumn(name = "user_id"),
+            indexes = @Index(name = "idx_forums_admin_forum_id", columnList = "forum_id"))
     @Column(name = "forum_id")
     private List<Long> forumsAdmin;
 
@@ -0,0 +1,28 @@
+package com.example.Security.repositories;
+
+import com.example.Security.entities.AttachmentThumbnail;
+import com.example.Security.entities.ThumbnailSize;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface AttachmentThumbnailRepository extends JpaRepository<AttachmentThumbnail, Long> {
+
+    Optional<AttachmentThumbnail> findByAttachmentIdAndThumbnailSize(Long attachmentId, ThumbnailSize thumbnailSize);
+
+    // 1 when this call created the row, 0 when it already existed; waits for a concurrent insert of the same variant to settle
+    @Modifying
+    @Query(value = "INSERT INTO attachment_thumbnails (id, attachment_id, thumbnail_size) " +
+                   "VALUES (nextval('attachment_thumbnails_seq'), :attachmentId, :thumbnailSize) " +
+                   "ON CONFLICT (attachment_id, thumbnail_size) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("attachmentId") Long attachmentId, @Param("thumbnailSize") String thumbnailSize);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AttachmentThumbnail t WHERE t.attachmentId = :attachmentId")
+    void deleteByAttachmentId(@Param("attachmentId") Long attachmentId);
+}
@@ -0,0 +1,15 @@
+package com.example.Security.repositories;
+
+/**
+ * Row of the forum member directory. The role is resolved by the query itself,
+ * keeping the highest one when a user appears in more than one forum collection.
+ */
+public interface ForumMemberProjection {
+    Long getUserId();
+    String getNickname();
+    String getUserType();
+    Long getPhotoId();
+    String getPhotoOriginalFilename();
+    String getPhotoContentType();
+    Long getPhotoSize();
+}
@@ -1,13 +1,16 @@
 package com.example.Security.repositories;
 
+import com.example.Security.dto.user.profile.UserProfileSummaryDTO;
 import com.example.Security.entities.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,11 +19,27 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
 
-    List<User> findByForumsSubscribedContaining(Long forumId);
+    // Forum memberships are removed straight from the collection tables: going through the
+    // entities makes Hibernate rewrite each affected user's whole collection
+    @Modifying
+    @Query(value = "DELETE FROM forums_subscribed WHERE forum_id = :forumId", nativeQuery = true)
+    int deleteForumSubscriptions(@Param("forumId") Long forumId);
 
-    List<User> findByForumsCreatedContaining(Long forumId);
+    @Modifying
+    @Query(value = "DELETE FROM forums_admin WHERE forum_id = :forumId", nativeQuery = true)
+    int deleteForumAdmins(@Param("forumId") Long forumId);
 
-    List<User> findByForumsAdminContaining(Long forumId);
+    @Modifying
+    @Query(value = "DELETE FROM forums_created WHERE forum_id = :forumId", nativeQuery = true)
+    int deleteForumCreators(@Param("forumId") Long forumId);
+
+    @Modifying
+    @Query(value = "DELETE FROM forums_subscribed WHERE user_id = :userId AND forum_id = :forumId", nativeQuery = true)
+    int deleteForumSubscription(@Param("userId") Long userId, @Param("forumId") Long forumId);
+
+    @Modifying
+    @Query(value = "DELETE FROM forums_admin WHERE user_id = :userId AND forum_id = :forumId", nativeQuery = true)
+    int deleteForumAdmin(@Param("userId") Long userId, @Param("forumId") Long forumId);
 
     @Query("SELECT u FROM User u JOIN u.userProfile up WHERE up.nickname = :nickname")
     List<User> findByUserProfileNickname(@Param("nickname") String nickname);
@@ -30,4 +49,37 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT u FROM User u JOIN FETCH u.userProfile WHERE u.id = :id")
     Optional<User> findByIdWithUserProfile(@Param("id") Long id);
+
+    @Query("SELECT new com.example.Security.dto.user.profile.UserProfileSummaryDTO(" +
+            "u.id, up.nickname, up.description, a.id, a.originalFilename, a.contentType, a.size) " +
+            "FROM User u JOIN u.userProfile up LEFT JOIN up.profilePhoto a " +
+            "WHERE u.id IN :ids")
+    List<UserProfileSummaryDTO> findProfileSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT m.user_id AS \"userId\", up.nickname AS \"nickname\", " +
+            "CASE m.role_rank WHEN 0 THEN 'Creator' WHEN 1 THEN 'Admin' ELSE 'Subscriber' END AS \"userType\", " +
+            "a.id AS \"photoId\", a.original_filename AS \"photoOriginalFilename\", " +
+            "a.content_type AS \"photoContentType\", a.size AS \"photoSize\" " +
+            "FROM (SELECT r.user_id, MIN(r.role_rank) AS role_rank FROM (" +
+            "SELECT user_id, 0 AS role_rank FROM forums_created WHERE forum_id = :forumId " +
+            "UNION ALL SELECT user_id, 1 FROM forums_admin WHERE forum_id = :forumId " +
+            "UNION ALL SELECT user_id, 2 FROM forums_subscribed WHERE forum_id = :forumId" +
+            ") r GROUP BY r.user_id) m " +
+            "JOIN _user u ON u.id = m.user_id " +
+            "JOIN user_profiles up ON up.id = u.user_profile_id " +
+            "LEFT JOIN attachments a ON a.id = up.attachment_id " +
+            "WHERE LOWER(up.nickname) LIKE LOWER(CONCAT('%', :nickname, '%')) ESCAPE '!' " +
+            "ORDER BY m.role_rank, up.nickname, m.user_id",
+            countQuery = "SELECT COUNT(DISTINCT r.user_id) FROM (" +
+            "SELECT user_id FROM forums_created WHERE forum_id = :forumId " +
+            "UNION ALL SELECT user_id FROM forums_admin WHERE forum_id = :forumId " +
+            "UNION ALL SELECT user_id FROM forums_subscribed WHERE forum_id = :forumId" +
+            ") r JOIN _user u ON u.id = r.user_id " +
+            "JOIN user_profiles up ON up.id = u.user_profile_id " +
+            "WHERE LOWER(up.nickname) LIKE LOWER(CONCAT('%', :nickname, '%')) ESCAPE '!'",
+            nativeQuery = true)
+    // :nickname is matched case-insensitively; '!' escapes LIKE wildcards, see UserService.escapeLike
+    Page<ForumMemberProjection> findForumMembers(@Param("forumId") Long forumId,
+                                                 @Param("nickname") String nickname,
+                                                 Pageable pageable);
 }
@@ -0,0 +1,132 @@
+package com.example.Security.service;
+
+import com.example.Security.entities.Attachment;
+import com.example.Security.entities.AttachmentThumbnail;
+import com.example.Security.entities.ThumbnailSize;
+import com.example.Security.exception.ResourceWithNumericValueDoesNotExistException;
+import com.example.Security.repositories.AttachmentRepository;
+import com.example.Security.repositories.AttachmentThumbnailRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+
+@Service
+public class ProfilePhotoThumbnailService {
+
+    private final AttachmentRepository attachmentRepository;
+    private final AttachmentThumbnailRepository thumbnailRepository;
+    private final Logger LOGGER = LoggerFactory.getLogger(ProfilePhotoThumbnailService.class);
+
+    public ProfilePhotoThumbnailService(AttachmentRepository attachmentRepository, AttachmentThumbnailRepository thumbnailRepository) {
+        this.attachmentRepository = attachmentRepository;
+        this.thumbnailRepository = thumbnailRepository;
+    }
+
+    @Transactional
+    public void generateThumbnails(Attachment photo) {
+        BufferedImage source = readImage(photo);
+        for (ThumbnailSize size : ThumbnailSize.values()) {
+            if (claimThumbnail(photo.getId(), size)) {
+                completeThumbnail(photo, source, size);
+            }
+        }
+    }
+
+    /**
+     * Returns the requested variant, generating it on the fly for photos uploaded
+     * before thumbnails existed. Returns empty when the original is not a decodable image.
+     */
+    @Transactional
+    public Optional<AttachmentThumbnail> getThumbnail(Long photoId, ThumbnailSize size) {
+        Optional<AttachmentThumbnail> thumbnail = thumbnailRepository.findByAttachmentIdAndThumbnailSize(photoId, size);
+        if (thumbnail.isPresent()) {
+            return thumbnail.filter(t -> t.getBytes() != null);
+        }
+        if (!claimThumbnail(photoId, size)) {
+            // A concurrent request created it, the claim waited for its transaction to commit
+            return thumbnailRepository.findByAttachmentIdAndThumbnailSize(photoId, size)
+                    .filter(t -> t.getBytes() != null);
+        }
+
+        Attachment photo = attachmentRepository.findById(photoId)
+                .orElseThrow(() -> new ResourceWithNumericValueDoesNotExistException("Attachment", "id", photoId));
+        return completeThumbnail(photo, readImage(photo), size);
+    }
+
+    @Transactional
+    public void deleteThumbnails(Long photoId) {
+        thumbnailRepository.deleteByAttachmentId(photoId);
+    }
+
+    private BufferedImage readImage(Attachment photo) {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(photo.getBytes()));
+            if (image == null) {
+                LOGGER.info(String.format("Attachment with id '%d' is not a supported image, skipping thumbnails", photo.getId()));
+            }
+            return image;
+        } catch (IOException e) {
+            LOGGER.error(String.format("Could not decode attachment with id '%d'", photo.getId()), e);
+            return null;
+        }
+    }
+
+    // Inserts an empty row for the variant, so concurrent requests for it generate it only once
+    private boolean claimThumbnail(Long photoId, ThumbnailSize size) {
+        return thumbnailRepository.insertIfAbsent(photoId, size.name()) == 1;
+    }
+
+    // Fills in a claimed row; without a decodable source it stays empty and marks the photo as not an image
+    private Optional<AttachmentThumbnail> completeThumbnail(Attachment photo, BufferedImage source, ThumbnailSize size) {
+        AttachmentThumbnail thumbnail = thumbnailRepository.findByAttachmentIdAndThumbnailSize(photo.getId(), size)
+                .orElseThrow();
+        if (source == null) {
+            return Optional.empty();
+        }
+
+        boolean hasAlpha = source.getColorModel().hasAlpha();
+        String format = hasAlpha ? "png" : "jpg";
+
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            ImageIO.write(resizeToSquare(source, size.getPixels(), hasAlpha), format, output);
+            byte[] bytes = output.toByteArray();
+
+            thumbnail.setBytes(bytes);
+            thumbnail.setContentType(hasAlpha ? "image/png" : "image/jpeg");
+            thumbnail.setSize((long) bytes.length);
+            return Optional.of(thumbnail);
+        } catch (IOException e) {
+            LOGGER.error(String.format("Could not encode %s thumbnail for attachment with id '%d'", size.getPathName(), photo.getId()), e);
+            return Optional.empty();
+        }
+    }
+
+    // Avatars are rendered as squares, so crop the centre before scaling down (never up)
+    private BufferedImage resizeToSquare(BufferedImage source, int pixels, boolean hasAlpha) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        int target = Math.min(pixels, side);
+        BufferedImage cropped = source.getSubimage((source.getWidth() - side) / 2, (source.getHeight() - side) / 2, side, side);
+
+        BufferedImage resized = new BufferedImage(target, target, hasAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = resized.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.drawImage(cropped, 0, 0, target, target, null);
+        } finally {
+            graphics.dispose();
+        }
+        return resized;
+    }
+}
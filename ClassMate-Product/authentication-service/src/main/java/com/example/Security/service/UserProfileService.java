@@ -3,6 +3,8 @@ package com.example.Security.service;
 import com.example.Security.dto.user.UserDisplayDTO;
 import com.example.Security.dto.user.profile.*;
 import com.example.Security.entities.Attachment;
+import com.example.Security.entities.AttachmentThumbnail;
+import com.example.Security.entities.ThumbnailSize;
 import com.example.Security.entities.User;
 import com.example.Security.entities.UserProfile;
 import com.example.Security.exception.ResourceWithNumericValueDoesNotExistException;
@@ -18,6 +20,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,13 +31,15 @@ public class UserProfileService {
     private final AttachmentRepository attachmentRepository;
     private final Logger LOGGER = LoggerFactory.getLogger(UserProfileService.class);
     private final CreateUserPublisher createUserPublisher;
+    private final ProfilePhotoThumbnailService thumbnailService;
     private static final long MAX_PROFILE_PHOTO_SIZE = 10 * 1048576; // 1MB
 
-    public UserProfileService(UserProfileRepository userProfileRepository, UserRepository userRepository, AttachmentRepository attachmentRepository, CreateUserPublisher createUserPublisher) {
+    public UserProfileService(UserProfileRepository userProfileRepository, UserRepository userRepository, AttachmentRepository attachmentRepository, CreateUserPublisher createUserPublisher, ProfilePhotoThumbnailService thumbnailService) {
         this.userProfileRepository = userProfileRepository;
         this.userRepository = userRepository;
         this.attachmentRepository = attachmentRepository;
         this.createUserPublisher = createUserPublisher;
+        this.thumbnailService = thumbnailService;
     }
 
     @Transactional
@@ -55,11 +60,13 @@ public class UserProfileService {
         user.setUserProfile(userProfile);
         userProfileRepository.save(userProfile);
         userRepository.save(user);
+        thumbnailService.generateThumbnails(profilePhoto);
 
         createUserPublisher.publishCreateUserEvent(
                 UserDisplayDTO.builder()
                 .userId(requestDTO.getUserId())
                 .nickname(requestDTO.getNickname())
+                .photoId(profilePhoto.getId())
                 .build()
         );
 
@@ -89,6 +96,12 @@ public class UserProfileService {
                 .orElseThrow(() -> new ResourceWithNumericValueDoesNotExistException("Attachment", "id", photoId));
     }
 
+    @Transactional
+    public Optional<AttachmentThumbnail> getProfilePhotoThumbnail(Long photoId, ThumbnailSize size) {
+        LOGGER.info(String.format("Getting %s thumbnail of Profile Photo with id '%d'", size.getPathName(), photoId));
+        return thumbnailService.getThumbnail(photoId, size);
+    }
+
     private ProfilePhotoDTO convertToFileDTO(Attachment attachment) {
         return ProfilePhotoDTO.builder()
                 .photoId(attachment.getId())
@@ -127,6 +140,7 @@ public class UserProfileService {
     }
 
 
+    @Transactional
     public void updateUserProfile(Long userId, UserProfileUpdateDTO userProfileUpdateDTO) throws IOException {
         User existingUser = userRepository.findById(userId)
                                 .orElseThrow(() -> new ResourceWithNumericValueDoesNotExistException("User", "id", userId));
@@ -139,6 +153,7 @@ public class UserProfileService {
         if(!(userProfileUpdateDTO.getProfilePhotoUpdateDTO().getPhotoIdToRemove() == null)){
             Long photoIdToRemove = userProfileUpdateDTO.getProfilePhotoUpdateDTO().getPhotoIdToRemove();
             userProfileRepository.deleteById(photoIdToRemove);
+            thumbnailService.deleteThumbnails(photoIdToRemove);
         }
 
         if(!(userProfileUpdateDTO.getProfilePhotoUpdateDTO().getPhotoToAdd() == null)){
@@ -149,10 +164,25 @@ public class UserProfileService {
                     .contentType(newPhoto.getContentType())
                     .bytes(newPhoto.getBytes())
                     .build();
+            if (userProfile.getProfilePhoto() != null) {
+                thumbnailService.deleteThumbnails(userProfile.getProfilePhoto().getId());
+            }
+            // Saved up front so the thumbnails can reference its id
+            attachmentRepository.save(newAttachment);
+            thumbnailService.generateThumbnails(newAttachment);
             userProfile.setProfilePhoto(newAttachment);
         }
         existingUser.setUserProfile(userProfile);
         userRepository.save(existingUser);
+
+        // Consumers upsert by user id, so the same event refreshes their nickname/photo copies
+        createUserPublisher.publishCreateUserEvent(
+                UserDisplayDTO.builder()
+                .userId(userId)
+                .nickname(userProfile.getNickname())
+                .photoId(userProfile.getProfilePhoto() != null ? userProfile.getProfilePhoto().getId() : null)
+                .build()
+        );
     }
 
 }
@@ -2,24 +2,35 @@ package com.example.Security.service;
 
 import com.example.Security.dto.user.profile.ProfilePhotoDTO;
 import com.example.Security.dto.user.profile.UserProfileResponseDTO;
+import com.example.Security.dto.user.profile.UserProfileSummaryDTO;
 import com.example.Security.dto.user.profile.UserProfileWithRoleDTO;
 import com.example.Security.entities.Attachment;
+import com.example.Security.entities.ThumbnailSize;
 import com.example.Security.entities.User;
 import com.example.Security.entities.UserProfile;
 import com.example.Security.exception.ResourceWithNumericValueDoesNotExistException;
+import com.example.Security.repositories.ForumMemberProjection;
 import com.example.Security.repositories.UserRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class UserService {
     private UserRepository userRepository;
+    private static final int MAX_MULTIPLE_USERS_LOOKUP = 200;
+    private static final int MAX_FORUM_MEMBERS_PAGE_SIZE = 100;
 
     public UserService(UserRepository userRepository) {
         this.userRepository = userRepository;
@@ -37,17 +48,22 @@ public class UserService {
     }
 
     public List<UserProfileResponseDTO> findMultipleUsers(List<Long> userIds){
+        Set<Long> distinctIds = new LinkedHashSet<>(userIds);
+        if (distinctIds.size() > MAX_MULTIPLE_USERS_LOOKUP) {
+            throw new IllegalArgumentException(String.format("Cannot look up more than %d users at once", MAX_MULTIPLE_USERS_LOOKUP));
+        }
+        if (distinctIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // One round-trip for every profile; ids without a user or profile are simply left out
+        Map<Long, UserProfileSummaryDTO> summariesById = userRepository.findProfileSummariesByIdIn(distinctIds).stream()
+                .collect(Collectors.toMap(UserProfileSummaryDTO::getUserId, Function.identity()));
+
         return userIds.stream()
-                .map((Long userId) -> {
-                    User existingUser = userRepository.findById(userId)
-                            .orElseThrow(() -> new IllegalArgumentException("User not found"));
-                    UserProfile userProfile = existingUser.getUserProfile();
-
-                    if (userProfile == null) {
-                        throw new IllegalArgumentException("User profile not found");
-                    }
-                    return getUserProfileResponseDTO(existingUser, userProfile);
-                })
+                .map(summariesById::get)
+                .filter(Objects::nonNull)
+                .map(this::mapSummaryToResponseDTO)
                 .collect(Collectors.toList());
     }
 
@@ -63,58 +79,49 @@ public class UserService {
         return getUserProfileResponseDTO(user, userProfile);
     }
 
-    public List<UserProfileWithRoleDTO> getUsersFromForum(Long forumId) {
-        List<User> creators = userRepository.findByForumsCreatedContaining(forumId);
-        List<User> admins = userRepository.findByForumsAdminContaining(forumId);
-        List<User> subscribers = userRepository.findByForumsSubscribedContaining(forumId);
-
-        List<UserProfileWithRoleDTO> userProfiles = new ArrayList<>();
-
-        // Add creator first
-        for(User creator : creators) {
-            UserProfileWithRoleDTO userProfile = mapToUserProfileWithRoleDTO(creator, "Creator");
-            userProfiles.add(userProfile);
-        }
-
-        // If not in list already, add admins
-        for(User admin : admins) {
-            if(!isUserInList(userProfiles, admin.getId())) {
-                UserProfileWithRoleDTO userProfile = mapToUserProfileWithRoleDTO(admin, "Admin");
-                userProfiles.add(userProfile);
-            }
-        }
-
-        // If not in list already, add subscribers
-        for(User subscriber : subscribers) {
-            if(!isUserInList(userProfiles, subscriber.getId())) {
-                UserProfileWithRoleDTO userProfile = mapToUserProfileWithRoleDTO(subscriber, "Subscriber");
-                userProfiles.add(userProfile);
-            }
-        }
-
-        return userProfiles;
+    public List<UserProfileWithRoleDTO> getUsersFromForum(Long forumId, Integer page, Integer size) {
+        return searchUsersInForum(forumId, "", page, size);
     }
 
-    public List<UserProfileWithRoleDTO> searchUsersInForum(Long forumId, String nicknameQuery){
-        List<UserProfileWithRoleDTO> members = getUsersFromForum(forumId);
-
-        return members.stream()
-                .filter((UserProfileWithRoleDTO member) -> member.getNickname().contains(nicknameQuery))
+    /**
+     * Finds the members of a forum whose nickname contains the query, ignoring case. Without
+     * page and size every member is returned; with either of them one page is, of at most
+     * {@value MAX_FORUM_MEMBERS_PAGE_SIZE} members.
+     */
+    public List<UserProfileWithRoleDTO> searchUsersInForum(Long forumId, String nicknameQuery, Integer page, Integer size){
+        Pageable pageable = page == null && size == null
+                ? Pageable.unpaged()
+                : PageRequest.of(page != null ? page : 0,
+                Math.min(size != null ? size : MAX_FORUM_MEMBERS_PAGE_SIZE, MAX_FORUM_MEMBERS_PAGE_SIZE));
+
+        // Role resolution, nickname filter and paging all happen in a single query
+        Page<ForumMemberProjection> members = userRepository.findForumMembers(forumId, escapeLike(nicknameQuery), pageable);
+
+        return members.getContent().stream()
+                .map(this::mapToUserProfileWithRoleDTO)
                 .collect(Collectors.toList());
     }
 
-    private UserProfileWithRoleDTO mapToUserProfileWithRoleDTO(User user, String userType) {
-        UserProfile userProfile = user.getUserProfile();
-        return UserProfileWithRoleDTO.builder()
-                .userId(user.getId())
-                .nickname(userProfile.getNickname())
-                .profilePhoto(convertToFileDTO(userProfile.getProfilePhoto()))
-                .userType(userType)
-                .build();
+    // Wildcards typed by the user match literally
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
     }
 
-    private boolean isUserInList(List<UserProfileWithRoleDTO> users, Long userId) {
-        return users.stream().anyMatch(user -> user.getUserId().equals(userId));
+    private UserProfileWithRoleDTO mapToUserProfileWithRoleDTO(ForumMemberProjection member) {
+        ProfilePhotoDTO profilePhoto = member.getPhotoId() == null ? null : ProfilePhotoDTO.builder()
+                .photoId(member.getPhotoId())
+                .originalFilename(member.getPhotoOriginalFilename())
+                .contentType(member.getPhotoContentType())
+                .size(member.getPhotoSize())
+                .thumbnailUrl(getThumbnailUrl(member.getPhotoId()))
+                .build();
+
+        return UserProfileWithRoleDTO.builder()
+                .userId(member.getUserId())
+                .nickname(member.getNickname())
+                .profilePhoto(profilePhoto)
+                .userType(member.getUserType())
+                .build();
     }
 
     public List<Long> getForumsAdmin(Long userId) {
@@ -144,13 +151,36 @@ public class UserService {
                 .build();
     }
 
+    private UserProfileResponseDTO mapSummaryToResponseDTO(UserProfileSummaryDTO summary) {
+        ProfilePhotoDTO profilePhoto = summary.getPhotoId() == null ? null : ProfilePhotoDTO.builder()
+                .photoId(summary.getPhotoId())
+                .originalFilename(summary.getPhotoOriginalFilename())
+                .contentType(summary.getPhotoContentType())
+                .size(summary.getPhotoSize())
+                .thumbnailUrl(getThumbnailUrl(summary.getPhotoId()))
+                .build();
+
+        return UserProfileResponseDTO.builder()
+                .userId(summary.getUserId())
+                .nickname(summary.getNickname())
+                .profilePhoto(profilePhoto)
+                .description(summary.getDescription())
+                .build();
+    }
+
     private ProfilePhotoDTO convertToFileDTO(Attachment attachment) {
         return ProfilePhotoDTO.builder()
                 .photoId(attachment.getId())
                 .originalFilename(attachment.getOriginalFilename())
                 .contentType(attachment.getContentType())
                 .size(attachment.getSize())
+                .thumbnailUrl(getThumbnailUrl(attachment.getId()))
                 .build();
     }
 
+    // List endpoints point clients at the avatar-sized variant instead of the original upload
+    private String getThumbnailUrl(Long photoId) {
+        return String.format("/api/profiles/photo/%d/thumbnail/%s", photoId, ThumbnailSize.SMALL.getPathName());
+    }
+
 }
@@ -1,13 +1,13 @@
 package com.example.calendar_service.publisher;
 
+import com.classmate.messaging.outbox.OutboxPublisher;
 import com.example.calendar_service.dto.EventNotificationDTO;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 public class EventNotificationPublisher {
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxPublisher outboxPublisher;
 
     @Value("${rabbitmq.notifications.event.routing-key}")
     private String eventNotificationRoutingKey;
@@ -16,11 +16,11 @@ public class EventNotificationPublisher {
     private String notificationsExchange;
 
 
-    public EventNotificationPublisher(RabbitTemplate rabbitTemplate) {
-        this.rabbitTemplate = rabbitTemplate;
+    public EventNotificationPublisher(OutboxPublisher outboxPublisher) {
+        this.outboxPublisher = outboxPublisher;
     }
 
     public void publishEventNotification(EventNotificationDTO event) {
-        rabbitTemplate.convertAndSend(notificationsExchange, eventNotificationRoutingKey, event);
+        outboxPublisher.publish(notificationsExchange, eventNotificationRoutingKey, event);
     }
 }
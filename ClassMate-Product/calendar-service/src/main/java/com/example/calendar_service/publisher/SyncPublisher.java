@@ -1,10 +1,10 @@
 package com.example.calendar_service.publisher;
 
+import com.classmate.messaging.outbox.OutboxPublisher;
 import com.example.calendar_service.dto.SyncDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -12,7 +12,7 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class SyncPublisher {
 
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxPublisher outboxPublisher;
     private Logger LOGGER = LoggerFactory.getLogger(SyncPublisher.class);
 
     @Value("${rabbitmq.queue.sync-google-queue}")
@@ -27,8 +27,8 @@ public class SyncPublisher {
     @Value("${rabbitmq.exchange.sync-google-routing-key}")
     private String syncRoutingKey;
 
-    public SyncPublisher(RabbitTemplate rabbitTemplate) {
-        this.rabbitTemplate = rabbitTemplate;
+    public SyncPublisher(OutboxPublisher outboxPublisher) {
+        this.outboxPublisher = outboxPublisher;
     }
 
     public void publishSyncGoogle(Long userId, boolean isSynced){
@@ -37,6 +37,6 @@ public class SyncPublisher {
                         .isSynced(isSynced)
                         .build();
         LOGGER.info(String.format("SyncDTO sent to RabbitMQ -> %s", syncDTO));
-        rabbitTemplate.convertAndSend(syncExchange, syncRoutingKey, syncDTO);
+        outboxPublisher.publish(syncExchange, syncRoutingKey, syncDTO);
     }
 }
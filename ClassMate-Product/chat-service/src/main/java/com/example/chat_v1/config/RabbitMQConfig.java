@@ -1,13 +1,13 @@
 package com.example.chat_v1.config;
 
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.TopicExchange;
-import org.springframework.amqp.rabbit.connection.ConnectionFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
-import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -32,6 +32,22 @@ public class RabbitMQConfig {
     @Value("${rabbitmq.notifications-message.routing-key}")
     private String messageNotificationRoutingKey;
 
+    // Cross-node chat delivery
+    @Value("${rabbitmq.chat-delivery-exchange.name}")
+    private String chatDeliveryExchange;
+
+    // Cross-node presence
+    @Value("${rabbitmq.chat-presence-exchange.name}")
+    private String chatPresenceExchange;
+
+    // Create user
+    @Value("${rabbitmq.queue.create-user-chat-service-queue}")
+    private String createUserChatServiceQueue;
+    @Value("${rabbitmq.create-user-exchange.name}")
+    private String createUserExchange;
+    @Value("${rabbitmq.create-user-routing-key.name}")
+    private String createUserRoutingKey;
+
 
     @Bean
     public Queue addChatroomQueue() {
@@ -73,16 +89,53 @@ public class RabbitMQConfig {
 
 
 
+    // Cross-node chat delivery
+    @Bean
+    public DirectExchange chatDeliveryExchange() {
+        return new DirectExchange(chatDeliveryExchange);
+    }
+
+    // One exclusive queue per node; bindings keyed by user id are added while that user is connected here
+    @Bean
+    public Queue chatDeliveryQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("chatDelivery."));
+    }
+
+    @Bean
+    public FanoutExchange chatPresenceExchange() {
+        return new FanoutExchange(chatPresenceExchange);
+    }
+
+    // Every node hears every presence broadcast, its own included (and ignored)
     @Bean
-    public MessageConverter converter() {
-        return new Jackson2JsonMessageConverter();
+    public Queue chatPresenceQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("chatPresence."));
     }
 
     @Bean
-    public RabbitTemplate amqpTemplate(ConnectionFactory connectionFactory) {
-        RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(converter());
-        return rabbitTemplate;
+    public Binding chatPresenceBinding() {
+        return BindingBuilder
+                .bind(chatPresenceQueue())
+                .to(chatPresenceExchange());
+    }
+
+    // Create user
+    @Bean
+    public Queue createUserChatServiceQueue() {
+        return new Queue(createUserChatServiceQueue, true);
+    }
+
+    @Bean
+    public TopicExchange createUserExchange() {
+        return new TopicExchange(createUserExchange);
+    }
+
+    @Bean
+    public Binding createUserChatServiceBinding() {
+        return BindingBuilder
+                .bind(createUserChatServiceQueue())
+                .to(createUserExchange())
+                .with(createUserRoutingKey);
     }
 
 }
@@ -0,0 +1,45 @@
+package com.example.chat_v1.consumer;
+
+import com.classmate.messaging.dedup.MessageDeduplicator;
+import com.example.chat_v1.dto.user.UserDisplayDTO;
+import com.example.chat_v1.entity.ChatUser;
+import com.example.chat_v1.repository.ChatUserRepository;
+import com.example.chat_v1.service.ConversationSummaryService;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CreateUserConsumer {
+    private final ChatUserRepository chatUserRepository;
+    private final ConversationSummaryService conversationSummaryService;
+    private final MessageDeduplicator messageDeduplicator;
+    private final Logger LOGGER = LoggerFactory.getLogger(CreateUserConsumer.class);
+
+    public CreateUserConsumer(ChatUserRepository chatUserRepository, ConversationSummaryService conversationSummaryService,
+                              MessageDeduplicator messageDeduplicator) {
+        this.chatUserRepository = chatUserRepository;
+        this.conversationSummaryService = conversationSummaryService;
+        this.messageDeduplicator = messageDeduplicator;
+    }
+
+    // Also sent on profile updates, which refresh the inbox snapshots of this user
+    @Transactional
+    @RabbitListener(queues = "${rabbitmq.queue.create-user-chat-service-queue}")
+    public void consumeCreateUserEvent(UserDisplayDTO userDisplayDTO, @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId){
+        if (!messageDeduplicator.firstDelivery(messageId)) {
+            return;
+        }
+        LOGGER.info(String.format("Saving user with id: %d and nickname: %s", userDisplayDTO.getUserId(), userDisplayDTO.getNickname()));
+        chatUserRepository.save(ChatUser.builder()
+                .userId(userDisplayDTO.getUserId())
+                .nickname(userDisplayDTO.getNickname())
+                .photoId(userDisplayDTO.getPhotoId())
+                .build());
+        conversationSummaryService.updatePeerSnapshot(userDisplayDTO.getUserId(), userDisplayDTO.getNickname(), userDisplayDTO.getPhotoId());
+    }
+}
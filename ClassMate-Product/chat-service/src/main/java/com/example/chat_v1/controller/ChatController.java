@@ -1,20 +1,31 @@
 package com.example.chat_v1.controller;
 
+import com.example.chat_v1.dto.chat.ActiveConversationDTO;
 import com.example.chat_v1.dto.chat.ChatMessageInputDTO;
 import com.example.chat_v1.dto.chat.ChatMessageOutputDTO;
+import com.example.chat_v1.dto.chat.ChatMessagePageDTO;
+import com.example.chat_v1.dto.chat.ReadReceiptDTO;
 import com.example.chat_v1.dto.chatroom.ChatRoomOutputDTO;
+import com.example.chat_v1.dto.chatroom.ConversationSummaryDTO;
+import com.example.chat_v1.dto.presence.PresenceDTO;
+import com.example.chat_v1.dto.presence.PresenceHeartbeatDTO;
 import com.example.chat_v1.dto.user.UserProfileResponseDTO;
+import com.example.chat_v1.service.ChatDeliveryService;
 import com.example.chat_v1.service.ChatMessageService;
 import com.example.chat_v1.service.ChatRoomService;
+import com.example.chat_v1.service.ConversationSummaryService;
+import com.example.chat_v1.service.PresenceService;
+import com.example.chat_v1.service.ReadReceiptService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
@@ -23,17 +34,26 @@ import java.util.List;
 @Controller
 public class ChatController {
 
-    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final ChatDeliveryService chatDeliveryService;
     private final ChatMessageService chatMessageService;
     private final ChatRoomService chatRoomService;
+    private final PresenceService presenceService;
+    private final ConversationSummaryService conversationSummaryService;
+    private final ReadReceiptService readReceiptService;
 
     public ChatController(
-            SimpMessagingTemplate simpMessagingTemplate,
+            ChatDeliveryService chatDeliveryService,
             ChatMessageService chatMessageService,
-            ChatRoomService chatRoomService) {
-        this.simpMessagingTemplate = simpMessagingTemplate;
+            ChatRoomService chatRoomService,
+            PresenceService presenceService,
+            ConversationSummaryService conversationSummaryService,
+            ReadReceiptService readReceiptService) {
+        this.chatDeliveryService = chatDeliveryService;
         this.chatMessageService = chatMessageService;
         this.chatRoomService = chatRoomService;
+        this.presenceService = presenceService;
+        this.conversationSummaryService = conversationSummaryService;
+        this.readReceiptService = readReceiptService;
     }
 
     @MessageMapping("/chat.sendMessage")
@@ -41,14 +61,49 @@ public class ChatController {
             @Payload ChatMessageInputDTO chatMessageInputDTO
     ){
         ChatMessageOutputDTO chatMessageOutputDTO = chatMessageService.save(chatMessageInputDTO);
-        simpMessagingTemplate.convertAndSendToUser(
-                chatMessageOutputDTO.getReceiverId().toString(),
-                "/queue/messages",
-                chatMessageOutputDTO
-        ); // /user/{userId}/queue/messages
+        chatDeliveryService.deliver(chatMessageOutputDTO);
     }
 
 
+    @MessageMapping("/chat.activeConversation")
+    public void setActiveConversation(
+            @Payload ActiveConversationDTO activeConversationDTO,
+            SimpMessageHeaderAccessor headerAccessor
+    ){
+        presenceService.setActiveConversation(
+                headerAccessor.getSessionId(),
+                activeConversationDTO.getUserId(),
+                activeConversationDTO.getPeerId()
+        );
+    }
+
+    @MessageMapping("/presence.heartbeat")
+    public void heartbeat(
+            @Payload PresenceHeartbeatDTO presenceHeartbeatDTO,
+            SimpMessageHeaderAccessor headerAccessor
+    ){
+        presenceService.heartbeat(headerAccessor.getSessionId(), presenceHeartbeatDTO.getUserId());
+    }
+
+    @MessageMapping("/chat.read")
+    public void markAsRead(
+            @Payload ReadReceiptDTO readReceiptDTO,
+            SimpMessageHeaderAccessor headerAccessor
+    ){
+        // A receipt without a message has no watermark to move, drop it instead of failing the merge
+        if (readReceiptDTO.getReaderId() == null || readReceiptDTO.getPeerId() == null
+                || readReceiptDTO.getLastReadMessageId() == null) {
+            return;
+        }
+        presenceService.heartbeat(headerAccessor.getSessionId(), readReceiptDTO.getReaderId());
+        readReceiptService.markAsRead(
+                readReceiptDTO.getReaderId(),
+                readReceiptDTO.getPeerId(),
+                readReceiptDTO.getLastReadMessageId(),
+                readReceiptDTO.getLastReadTimeStamp()
+        );
+    }
+
     @GetMapping("/api/messages/{senderId}/{receiverId}")
     public ResponseEntity<List<ChatMessageOutputDTO>> getMessages(
             @PathVariable("senderId") Long senderId,
@@ -58,6 +113,49 @@ public class ChatController {
         return new ResponseEntity<>(chatMessages, HttpStatus.OK);
     }
 
+    @GetMapping("/api/messages/{senderId}/{receiverId}/history")
+    public ResponseEntity<ChatMessagePageDTO> getMessageHistory(
+            @PathVariable("senderId") Long senderId,
+            @PathVariable("receiverId") Long receiverId,
+            @RequestParam(value = "before", required = false) String before,
+            @RequestParam(value = "size", defaultValue = "50") int size
+    ) {
+        ChatMessagePageDTO page = chatMessageService.findChatMessagesPage(senderId, receiverId, before, size);
+        return new ResponseEntity<>(page, HttpStatus.OK);
+    }
+
+    @GetMapping("/api/messages/inbox/{userId}")
+    public ResponseEntity<List<ConversationSummaryDTO>> getInbox(@PathVariable("userId") Long userId){
+        List<ConversationSummaryDTO> inbox = conversationSummaryService.getInbox(userId);
+        return new ResponseEntity<>(inbox, HttpStatus.OK);
+    }
+
+    @PutMapping("/api/messages/inbox/{userId}/{peerId}/read")
+    public ResponseEntity<Void> markConversationAsRead(
+            @PathVariable("userId") Long userId,
+            @PathVariable("peerId") Long peerId
+    ){
+        conversationSummaryService.markAsRead(userId, peerId);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    @GetMapping("/api/messages/receipts/{readerId}/{peerId}")
+    public ResponseEntity<ReadReceiptDTO> getReadReceipt(
+            @PathVariable("readerId") Long readerId,
+            @PathVariable("peerId") Long peerId
+    ){
+        ReadReceiptDTO readReceipt = readReceiptService.getWatermark(readerId, peerId);
+        return new ResponseEntity<>(readReceipt, HttpStatus.OK);
+    }
+
+    @GetMapping("/api/messages/presence")
+    public ResponseEntity<List<PresenceDTO>> getPresence(@RequestParam("userId") List<Long> userIds){
+        List<PresenceDTO> presence = userIds.stream()
+                .map(userId -> new PresenceDTO(userId, presenceService.isOnline(userId)))
+                .toList();
+        return new ResponseEntity<>(presence, HttpStatus.OK);
+    }
+
     @GetMapping("/api/messages/chatroom/{senderId}")
     public ResponseEntity<List<ChatRoomOutputDTO>> getUserChatrooms(@PathVariable("senderId") Long senderId){
         List<ChatRoomOutputDTO> chatrooms = chatRoomService.findChatroomsBySender(senderId);
@@ -0,0 +1,14 @@
+package com.example.chat_v1.dto.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ActiveConversationDTO {
+    private Long userId;
+    // null when the user closes the conversation
+    private Long peerId;
+}
@@ -12,6 +12,7 @@ import java.util.Date;
 @NoArgsConstructor
 @Builder
 public class ChatMessageOutputDTO {
+    private Long id;
     private Long senderId;
     private Long receiverId;
     private String chatId;
@@ -0,0 +1,20 @@
+package com.example.chat_v1.dto.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ChatMessagePageDTO {
+    // Oldest first, ready to be prepended to what the client already shows
+    private List<ChatMessageOutputDTO> messages;
+    // Pass back as "before" to load the previous page; null when there is nothing older
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,21 @@
+package com.example.chat_v1.dto.chat;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReadReceiptDTO {
+    private Long readerId;
+    private Long peerId;
+    private Long lastReadMessageId;
+    // Time stamp of that message; the watermark orders messages like the history does, by (timeStamp, id)
+    private Date lastReadTimeStamp;
+    private Date readAt;
+}
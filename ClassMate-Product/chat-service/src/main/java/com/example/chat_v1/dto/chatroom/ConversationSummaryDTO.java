@@ -0,0 +1,24 @@
+package com.example.chat_v1.dto.chatroom;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ConversationSummaryDTO {
+    private Long peerId;
+    private String peerNickname;
+    private Long peerPhotoId;
+    private String chatId;
+    private Long lastMessageId;
+    private Long lastMessageSenderId;
+    private String lastMessageSnippet;
+    private Date lastMessageTimeStamp;
+    private int unreadCount;
+}
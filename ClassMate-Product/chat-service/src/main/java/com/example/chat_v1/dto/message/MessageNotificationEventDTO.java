@@ -12,4 +12,5 @@ import lombok.Setter;
 public class MessageNotificationEventDTO {
     private Long receiverId;
     private Long senderId;
+    private String senderName;
 }
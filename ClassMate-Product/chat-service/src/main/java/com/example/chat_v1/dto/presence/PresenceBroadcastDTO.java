@@ -0,0 +1,26 @@
+package com.example.chat_v1.dto.presence;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Presence held by one chat-service node. A snapshot replaces everything known
+ * about that node; a delta only touches the listed users.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PresenceBroadcastDTO {
+    private String nodeId;
+    private boolean snapshot;
+    // userId -> peers whose conversation that user has open
+    private Map<Long, Set<Long>> onlineUsers;
+    private List<Long> offlineUserIds;
+}
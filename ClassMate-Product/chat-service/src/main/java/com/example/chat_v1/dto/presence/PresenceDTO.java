@@ -0,0 +1,15 @@
+package com.example.chat_v1.dto.presence;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PresenceDTO {
+    private Long userId;
+    private boolean online;
+}
@@ -0,0 +1,12 @@
+package com.example.chat_v1.dto.presence;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PresenceHeartbeatDTO {
+    private Long userId;
+}
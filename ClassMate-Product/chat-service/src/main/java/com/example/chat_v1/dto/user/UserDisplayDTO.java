@@ -0,0 +1,16 @@
+package com.example.chat_v1.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserDisplayDTO {
+    private Long userId;
+    private String nickname;
+    private Long photoId;
+}
@@ -15,15 +15,19 @@ import java.util.Date;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "chat_message")
+@Table(name = "chat_message", indexes = {
+        @Index(name = "idx_chat_message_chat_id_time_stamp", columnList = "chat_id, time_stamp desc, id")
+})
 public class ChatMessage {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    @Column(name = "chat_id")
     private String chatId;
     private Long senderId;
     private Long receiverId;
     private String content;
+    @Column(name = "time_stamp")
     private Date timeStamp;
     @Nullable
     @OneToOne
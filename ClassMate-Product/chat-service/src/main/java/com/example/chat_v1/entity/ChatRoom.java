@@ -18,13 +18,18 @@ import java.util.Set;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "chat_room")
+@Table(name = "chat_room", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_chat_room_sender_id_receiver_id", columnNames = {"sender_id", "receiver_id"})
+})
 public class ChatRoom {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    @Column(name = "chat_id")
     private String chatId;
+    @Column(name = "sender_id")
     private Long senderId;
+    @Column(name = "receiver_id")
     private Long receiverId;
 
     public Long getId() {
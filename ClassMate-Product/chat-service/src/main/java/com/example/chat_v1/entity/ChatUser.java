@@ -0,0 +1,22 @@
+package com.example.chat_v1.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "chat_user")
+public class ChatUser {
+    @Id
+    private Long userId;
+    private String nickname;
+    private Long photoId;
+}
@@ -0,0 +1,51 @@
+package com.example.chat_v1.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * One row per (owner, peer) conversation, kept up to date as messages are sent and
+ * read so the inbox is a single indexed read. Peer nickname/photo are a snapshot
+ * refreshed from the user events.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "conversation_summary", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_conversation_summary_owner_id_peer_id", columnNames = {"owner_id", "peer_id"})
+}, indexes = {
+        @Index(name = "idx_conversation_summary_owner_id_last_message_time_stamp", columnList = "owner_id, last_message_time_stamp desc"),
+        @Index(name = "idx_conversation_summary_peer_id", columnList = "peer_id")
+})
+public class ConversationSummary {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+    @Column(name = "peer_id", nullable = false)
+    private Long peerId;
+    @Column(name = "chat_id")
+    private String chatId;
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+    @Column(name = "last_message_sender_id")
+    private Long lastMessageSenderId;
+    @Column(name = "last_message_snippet")
+    private String lastMessageSnippet;
+    @Column(name = "last_message_time_stamp")
+    private Date lastMessageTimeStamp;
+    @Column(name = "unread_count", nullable = false)
+    private int unreadCount;
+    @Column(name = "peer_nickname")
+    private String peerNickname;
+    @Column(name = "peer_photo_id")
+    private Long peerPhotoId;
+}
@@ -0,0 +1,39 @@
+package com.example.chat_v1.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Read watermark: the newest message from peer that reader has seen, compared by
+ * (time stamp, id) like the history is ordered. Message ids alone do not follow time:
+ * they are allocated in blocks per node.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "read_receipt", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_read_receipt_reader_id_peer_id", columnNames = {"reader_id", "peer_id"})
+})
+public class ReadReceipt {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "reader_id", nullable = false)
+    private Long readerId;
+    @Column(name = "peer_id", nullable = false)
+    private Long peerId;
+    @Column(name = "last_read_message_id", nullable = false)
+    private Long lastReadMessageId;
+    // Null for watermarks written before it was recorded, any time stamped receipt moves past them
+    @Column(name = "last_read_time_stamp")
+    private Date lastReadTimeStamp;
+    @Column(name = "read_at")
+    private Date readAt;
+}
@@ -0,0 +1,10 @@
+package com.example.chat_v1.exception;
+
+public class WriteBehindQueueFullException extends RuntimeException{
+    private String chatId;
+
+    public WriteBehindQueueFullException(String chatId) {
+        super(String.format("Message for chat : %s was not accepted, the write-behind queue is full.", chatId));
+        this.chatId = chatId;
+    }
+}
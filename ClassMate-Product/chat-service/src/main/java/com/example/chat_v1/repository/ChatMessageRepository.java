@@ -1,11 +1,27 @@
 package com.example.chat_v1.repository;
 
 import com.example.chat_v1.entity.ChatMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
     List<ChatMessage> findByChatId(String chatId);
+
+    // Both history queries walk idx_chat_message_chat_id_time_stamp newest-first and stop after one page
+    List<ChatMessage> findByChatIdOrderByTimeStampDescIdDesc(String chatId, Pageable pageable);
+
+    @Query("SELECT m FROM ChatMessage m " +
+           "WHERE m.chatId = :chatId " +
+           "AND (m.timeStamp < :beforeTimeStamp OR (m.timeStamp = :beforeTimeStamp AND m.id < :beforeId)) " +
+           "ORDER BY m.timeStamp DESC, m.id DESC")
+    List<ChatMessage> findByChatIdBefore(@Param("chatId") String chatId,
+                                         @Param("beforeTimeStamp") Date beforeTimeStamp,
+                                         @Param("beforeId") Long beforeId,
+                                         Pageable pageable);
 }
@@ -2,6 +2,9 @@ package com.example.chat_v1.repository;
 
 import com.example.chat_v1.entity.ChatRoom;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,4 +19,13 @@ public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
     List<ChatRoom> findBySenderId(Long senderId);
 
     List<ChatRoom> findByIdIn(List<Long> chatroomIds);
+
+    // Returns 0 when the row already exists, so racing first messages never fail the transaction
+    @Modifying
+    @Query(value = "INSERT INTO chat_room (chat_id, sender_id, receiver_id) VALUES (:chatId, :senderId, :receiverId) " +
+                   "ON CONFLICT (sender_id, receiver_id) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("chatId") String chatId,
+                       @Param("senderId") Long senderId,
+                       @Param("receiverId") Long receiverId);
 }
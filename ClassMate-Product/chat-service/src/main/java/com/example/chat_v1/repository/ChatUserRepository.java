@@ -0,0 +1,7 @@
+package com.example.chat_v1.repository;
+
+import com.example.chat_v1.entity.ChatUser;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ChatUserRepository extends JpaRepository<ChatUser, Long> {
+}
@@ -0,0 +1,78 @@
+package com.example.chat_v1.repository;
+
+import com.example.chat_v1.entity.ConversationSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.List;
+
+public interface ConversationSummaryRepository extends JpaRepository<ConversationSummary, Long> {
+
+    List<ConversationSummary> findByOwnerIdOrderByLastMessageTimeStampDesc(Long ownerId);
+
+    // Adds unreadDelta and moves the last message forward only if this one is newer,
+    // so late or replayed batches never roll the preview back
+    @Modifying
+    @Query(value = "INSERT INTO conversation_summary (owner_id, peer_id, chat_id, last_message_id, last_message_sender_id, " +
+                   "last_message_snippet, last_message_time_stamp, unread_count, peer_nickname, peer_photo_id) " +
+                   "VALUES (:ownerId, :peerId, :chatId, :messageId, :senderId, :snippet, :timeStamp, :unreadDelta, :peerNickname, :peerPhotoId) " +
+                   "ON CONFLICT (owner_id, peer_id) DO UPDATE SET " +
+                   "unread_count = conversation_summary.unread_count + EXCLUDED.unread_count, " +
+                   "peer_nickname = COALESCE(conversation_summary.peer_nickname, EXCLUDED.peer_nickname), " +
+                   "peer_photo_id = COALESCE(conversation_summary.peer_photo_id, EXCLUDED.peer_photo_id), " +
+                   "last_message_id = CASE WHEN EXCLUDED.last_message_time_stamp >= conversation_summary.last_message_time_stamp " +
+                   "THEN EXCLUDED.last_message_id ELSE conversation_summary.last_message_id END, " +
+                   "last_message_sender_id = CASE WHEN EXCLUDED.last_message_time_stamp >= conversation_summary.last_message_time_stamp " +
+                   "THEN EXCLUDED.last_message_sender_id ELSE conversation_summary.last_message_sender_id END, " +
+                   "last_message_snippet = CASE WHEN EXCLUDED.last_message_time_stamp >= conversation_summary.last_message_time_stamp " +
+                   "THEN EXCLUDED.last_message_snippet ELSE conversation_summary.last_message_snippet END, " +
+                   "last_message_time_stamp = GREATEST(conversation_summary.last_message_time_stamp, EXCLUDED.last_message_time_stamp)",
+           nativeQuery = true)
+    int upsertLastMessage(@Param("ownerId") Long ownerId,
+                          @Param("peerId") Long peerId,
+                          @Param("chatId") String chatId,
+                          @Param("messageId") Long messageId,
+                          @Param("senderId") Long senderId,
+                          @Param("snippet") String snippet,
+                          @Param("timeStamp") Date timeStamp,
+                          @Param("unreadDelta") int unreadDelta,
+                          @Param("peerNickname") String peerNickname,
+                          @Param("peerPhotoId") Long peerPhotoId);
+
+    @Modifying
+    @Query("UPDATE ConversationSummary c SET c.unreadCount = 0 WHERE c.ownerId = :ownerId AND c.peerId = :peerId AND c.unreadCount > 0")
+    int markAsRead(@Param("ownerId") Long ownerId, @Param("peerId") Long peerId);
+
+    // Leaves the count alone when a newer message, by (time stamp, id), arrived after the one that was read
+    @Modifying
+    @Query("UPDATE ConversationSummary c SET c.unreadCount = 0 WHERE c.ownerId = :ownerId AND c.peerId = :peerId " +
+           "AND c.unreadCount > 0 AND (c.lastMessageTimeStamp < :timeStamp " +
+           "OR (c.lastMessageTimeStamp = :timeStamp AND c.lastMessageId <= :messageId))")
+    int markAsReadUpTo(@Param("ownerId") Long ownerId,
+                       @Param("peerId") Long peerId,
+                       @Param("messageId") Long messageId,
+                       @Param("timeStamp") Date timeStamp);
+
+    @Modifying
+    @Query("UPDATE ConversationSummary c SET c.peerNickname = :nickname, c.peerPhotoId = :photoId WHERE c.peerId = :peerId")
+    int updatePeerSnapshot(@Param("peerId") Long peerId,
+                           @Param("nickname") String nickname,
+                           @Param("photoId") Long photoId);
+
+    // One-off seed for conversations that predate the summary table, read state starts clean
+    @Modifying
+    @Query(value = "INSERT INTO conversation_summary (owner_id, peer_id, chat_id, last_message_id, last_message_sender_id, " +
+                   "last_message_snippet, last_message_time_stamp, unread_count, peer_nickname, peer_photo_id) " +
+                   "SELECT r.sender_id, r.receiver_id, r.chat_id, m.id, m.sender_id, LEFT(m.content, :snippetLength), m.time_stamp, 0, " +
+                   "u.nickname, u.photo_id " +
+                   "FROM chat_room r " +
+                   "JOIN LATERAL (SELECT cm.id, cm.sender_id, cm.content, cm.time_stamp FROM chat_message cm " +
+                   "WHERE cm.chat_id = r.chat_id ORDER BY cm.time_stamp DESC, cm.id DESC LIMIT 1) m ON true " +
+                   "LEFT JOIN chat_user u ON u.user_id = r.receiver_id " +
+                   "ON CONFLICT (owner_id, peer_id) DO NOTHING",
+           nativeQuery = true)
+    int backfillFromChatRooms(@Param("snippetLength") int snippetLength);
+}
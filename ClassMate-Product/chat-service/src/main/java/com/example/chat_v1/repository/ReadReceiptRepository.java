@@ -0,0 +1,38 @@
+package com.example.chat_v1.repository;
+
+import com.example.chat_v1.entity.ReadReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Date;
+import java.util.Optional;
+
+public interface ReadReceiptRepository extends JpaRepository<ReadReceipt, Long> {
+
+    Optional<ReadReceipt> findByReaderIdAndPeerId(Long readerId, Long peerId);
+
+    // The incoming watermark is past the stored one
+    String ADVANCES = "(read_receipt.last_read_time_stamp IS NULL OR " +
+                      "(EXCLUDED.last_read_time_stamp, EXCLUDED.last_read_message_id) > " +
+                      "(read_receipt.last_read_time_stamp, read_receipt.last_read_message_id))";
+
+    // Watermarks only move forward, whatever order the flushes land in
+    @Modifying
+    @Query(value = "INSERT INTO read_receipt (reader_id, peer_id, last_read_message_id, last_read_time_stamp, read_at) " +
+                   "VALUES (:readerId, :peerId, :messageId, :timeStamp, :readAt) " +
+                   "ON CONFLICT (reader_id, peer_id) DO UPDATE SET " +
+                   "last_read_message_id = CASE WHEN " + ADVANCES + " " +
+                   "THEN EXCLUDED.last_read_message_id ELSE read_receipt.last_read_message_id END, " +
+                   "read_at = CASE WHEN " + ADVANCES + " " +
+                   "THEN EXCLUDED.read_at ELSE read_receipt.read_at END, " +
+                   "last_read_time_stamp = CASE WHEN " + ADVANCES + " " +
+                   "THEN EXCLUDED.last_read_time_stamp ELSE read_receipt.last_read_time_stamp END",
+           nativeQuery = true)
+    int upsertWatermark(@Param("readerId") Long readerId,
+                        @Param("peerId") Long peerId,
+                        @Param("messageId") Long messageId,
+                        @Param("timeStamp") Date timeStamp,
+                        @Param("readAt") Date readAt);
+}
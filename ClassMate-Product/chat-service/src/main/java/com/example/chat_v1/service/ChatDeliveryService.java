@@ -0,0 +1,194 @@
+package com.example.chat_v1.service;
+
+import com.example.chat_v1.dto.chat.ChatMessageOutputDTO;
+import com.example.chat_v1.dto.chat.ReadReceiptDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.annotation.RabbitHandler;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Delivers chat messages to receivers connected to any chat-service node.
+ * Each node binds its own delivery queue with the ids of the users subscribed
+ * to it, so a message published with the receiver id as routing key only
+ * reaches the nodes that hold one of the receiver's sessions. Read receipts
+ * travel the same way to the user whose messages were read.
+ */
+@Service
+@RabbitListener(queues = "#{chatDeliveryQueue.name}", autoStartup = "${chat.delivery.cluster-enabled:true}")
+public class ChatDeliveryService {
+    private static final String USER_MESSAGES_DESTINATION = "/queue/messages";
+    private static final String USER_RECEIPTS_DESTINATION = "/queue/receipts";
+    private static final Pattern USER_MESSAGES_SUBSCRIPTION = Pattern.compile("^/user/(\\d+)/queue/messages$");
+
+    private final SimpMessagingTemplate simpMessagingTemplate;
+    private final RabbitTemplate rabbitTemplate;
+    private final AmqpAdmin amqpAdmin;
+    private final Queue chatDeliveryQueue;
+    private final Logger LOGGER = LoggerFactory.getLogger(ChatDeliveryService.class);
+
+    @Value("${rabbitmq.chat-delivery-exchange.name}")
+    private String chatDeliveryExchange;
+
+    @Value("${chat.delivery.cluster-enabled:true}")
+    private boolean clusterEnabled;
+
+    // sessionId -> (subscriptionId -> userId)
+    private final Map<String, Map<String, Long>> subscriptionsBySession = new ConcurrentHashMap<>();
+    // userId -> local subscriptions; the routing binding exists while the count is positive
+    private final Map<Long, Integer> localSubscriptionCounts = new ConcurrentHashMap<>();
+
+    public ChatDeliveryService(SimpMessagingTemplate simpMessagingTemplate,
+                               RabbitTemplate rabbitTemplate,
+                               AmqpAdmin amqpAdmin,
+                               Queue chatDeliveryQueue,
+                               ConnectionFactory connectionFactory) {
+        this.simpMessagingTemplate = simpMessagingTemplate;
+        this.rabbitTemplate = rabbitTemplate;
+        this.amqpAdmin = amqpAdmin;
+        this.chatDeliveryQueue = chatDeliveryQueue;
+        // The node queue is redeclared after a broker reconnect, but dynamic bindings are not
+        connectionFactory.addConnectionListener(connection -> rebindLocalUsers());
+    }
+
+    public void deliver(ChatMessageOutputDTO chatMessage) {
+        if (!clusterEnabled) {
+            deliverLocally(chatMessage);
+            return;
+        }
+        rabbitTemplate.convertAndSend(chatDeliveryExchange, chatMessage.getReceiverId().toString(), chatMessage);
+    }
+
+    // The receipt goes to the peer, whose messages were read
+    public void deliverReadReceipt(ReadReceiptDTO readReceipt) {
+        if (!clusterEnabled) {
+            deliverLocally(readReceipt);
+            return;
+        }
+        rabbitTemplate.convertAndSend(chatDeliveryExchange, readReceipt.getPeerId().toString(), readReceipt);
+    }
+
+    @RabbitHandler
+    public void deliverLocally(ChatMessageOutputDTO chatMessage) {
+        simpMessagingTemplate.convertAndSendToUser(
+                chatMessage.getReceiverId().toString(),
+                USER_MESSAGES_DESTINATION,
+                chatMessage
+        ); // /user/{userId}/queue/messages
+    }
+
+    @RabbitHandler
+    public void deliverLocally(ReadReceiptDTO readReceipt) {
+        simpMessagingTemplate.convertAndSendToUser(
+                readReceipt.getPeerId().toString(),
+                USER_RECEIPTS_DESTINATION,
+                readReceipt
+        ); // /user/{userId}/queue/receipts
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Long userId = parseUserId(accessor.getDestination());
+        if (userId == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        subscriptionsBySession
+                .computeIfAbsent(accessor.getSessionId(), sessionId -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), userId);
+        localSubscriptionCounts.compute(userId, (id, count) -> {
+            if (count == null) {
+                bind(id);
+                return 1;
+            }
+            return count + 1;
+        });
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, Long> subscriptions = subscriptionsBySession.get(accessor.getSessionId());
+        if (subscriptions == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        Long userId = subscriptions.remove(accessor.getSubscriptionId());
+        if (userId != null) {
+            releaseSubscription(userId);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, Long> subscriptions = subscriptionsBySession.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::releaseSubscription);
+        }
+    }
+
+    private void releaseSubscription(Long userId) {
+        localSubscriptionCounts.computeIfPresent(userId, (id, count) -> {
+            if (count <= 1) {
+                unbind(id);
+                return null;
+            }
+            return count - 1;
+        });
+    }
+
+    private void rebindLocalUsers() {
+        localSubscriptionCounts.keySet().forEach(this::bind);
+    }
+
+    private void bind(Long userId) {
+        if (!clusterEnabled) {
+            return;
+        }
+        try {
+            amqpAdmin.declareBinding(userBinding(userId));
+        } catch (Exception e) {
+            LOGGER.error(String.format("Could not bind chat delivery for user %d", userId), e);
+        }
+    }
+
+    private void unbind(Long userId) {
+        if (!clusterEnabled) {
+            return;
+        }
+        try {
+            amqpAdmin.removeBinding(userBinding(userId));
+        } catch (Exception e) {
+            LOGGER.error(String.format("Could not unbind chat delivery for user %d", userId), e);
+        }
+    }
+
+    private Binding userBinding(Long userId) {
+        return new Binding(chatDeliveryQueue.getName(), Binding.DestinationType.QUEUE, chatDeliveryExchange, userId.toString(), null);
+    }
+
+    private Long parseUserId(String destination) {
+        if (destination == null) {
+            return null;
+        }
+        Matcher matcher = USER_MESSAGES_SUBSCRIPTION.matcher(destination);
+        return matcher.matches() ? Long.valueOf(matcher.group(1)) : null;
+    }
+}
@@ -2,19 +2,23 @@ package com.example.chat_v1.service;
 
 import com.example.chat_v1.dto.chat.ChatMessageInputDTO;
 import com.example.chat_v1.dto.chat.ChatMessageOutputDTO;
-import com.example.chat_v1.dto.message.MessageNotificationEventDTO;
+import com.example.chat_v1.dto.chat.ChatMessagePageDTO;
 import com.example.chat_v1.entity.Attachment;
 import com.example.chat_v1.entity.ChatMessage;
-import com.example.chat_v1.publisher.ChatPublisher;
+import com.example.chat_v1.exception.InvalidCursorException;
 import com.example.chat_v1.repository.AttachmentRepository;
 import com.example.chat_v1.repository.ChatMessageRepository;
 import com.example.chat_v1.service.mapper.ChatMessageMapper;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,17 +27,24 @@ public class ChatMessageService {
     private final ChatRoomService chatRoomService;
     private final ChatMessageMapper chatMessageMapper;
     private final AttachmentRepository attachmentRepository;
-    private final ChatPublisher chatPublisher;
+    private final MessageNotificationCoalescer messageNotificationCoalescer;
+    private final ChatMessageWriteBehindWriter writeBehindWriter;
+    private final ConversationSummaryService conversationSummaryService;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
 
     public ChatMessageService(ChatMessageRepository chatMessageRepository,
                               ChatRoomService chatRoomService,
                               ChatMessageMapper chatMessageMapper,
-                              AttachmentRepository attachmentRepository, ChatPublisher chatPublisher) {
+                              AttachmentRepository attachmentRepository, MessageNotificationCoalescer messageNotificationCoalescer,
+                              ChatMessageWriteBehindWriter writeBehindWriter,
+                              ConversationSummaryService conversationSummaryService) {
         this.chatMessageRepository = chatMessageRepository;
         this.chatRoomService = chatRoomService;
         this.chatMessageMapper = chatMessageMapper;
         this.attachmentRepository = attachmentRepository;
-        this.chatPublisher = chatPublisher;
+        this.messageNotificationCoalescer = messageNotificationCoalescer;
+        this.writeBehindWriter = writeBehindWriter;
+        this.conversationSummaryService = conversationSummaryService;
     }
 
     @Transactional
@@ -47,16 +58,25 @@ public class ChatMessageService {
 
         newChatMessage.setChatId(chatId);
         newChatMessage.setTimeStamp(new Date());
+
+        if (writeBehindWriter.isEnabled()) {
+            // Id assigned now so the receiver gets the final message; the writer inserts it and notifies later
+            newChatMessage.setId(writeBehindWriter.nextId());
+            writeBehindWriter.enqueue(newChatMessage);
+            return chatMessageMapper.mapChatMessageToOutputDTO(newChatMessage);
+        }
+
         Attachment attachment = newChatMessage.getAttachment();
         if(attachment != null){
             attachmentRepository.save(attachment);
         }
 
-        // Publish notification event
-        MessageNotificationEventDTO eventDTO = new MessageNotificationEventDTO(newChatMessage.getReceiverId(), newChatMessage.getSenderId());
-        chatPublisher.publishMessageNotificationEvent(eventDTO);
-        
-        return chatMessageMapper.mapChatMessageToOutputDTO(chatMessageRepository.save(newChatMessage));
+        ChatMessage savedChatMessage = chatMessageRepository.save(newChatMessage);
+        conversationSummaryService.recordMessages(List.of(savedChatMessage));
+
+        // Notification event, coalesced per (receiver, sender); it goes to the outbox in this transaction
+        messageNotificationCoalescer.onMessageSent(savedChatMessage);
+        return chatMessageMapper.mapChatMessageToOutputDTO(savedChatMessage);
     }
 
     public List<ChatMessageOutputDTO> findChatMessages(
@@ -71,4 +91,63 @@ public class ChatMessageService {
                 .map(chatMessageMapper::mapChatMessageToOutputDTO)
                 .collect(Collectors.toList());
     }
+
+    public ChatMessagePageDTO findChatMessagesPage(
+            Long senderId,
+            Long receiverId,
+            String before,
+            int size
+    ) {
+        Optional<String> chatId = chatRoomService.getChatRoomId(senderId, receiverId, false);
+        if (chatId.isEmpty()) {
+            return ChatMessagePageDTO.builder()
+                    .messages(new ArrayList<>())
+                    .hasMore(false)
+                    .build();
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        // One extra row tells us whether an older page exists without a count query
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<ChatMessage> newestFirst;
+        if (before == null || before.isBlank()) {
+            newestFirst = chatMessageRepository.findByChatIdOrderByTimeStampDescIdDesc(chatId.get(), pageable);
+        } else {
+            HistoryCursor cursor = HistoryCursor.decode(before);
+            newestFirst = chatMessageRepository.findByChatIdBefore(chatId.get(), cursor.timeStamp(), cursor.id(), pageable);
+        }
+
+        boolean hasMore = newestFirst.size() > pageSize;
+        List<ChatMessage> page = new ArrayList<>(newestFirst.subList(0, Math.min(pageSize, newestFirst.size())));
+        Collections.reverse(page);
+
+        return ChatMessagePageDTO.builder()
+                .messages(page.stream()
+                        .map(chatMessageMapper::mapChatMessageToOutputDTO)
+                        .collect(Collectors.toList()))
+                .nextCursor(hasMore ? HistoryCursor.encode(page.get(0)) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Position of the oldest message already shown, encoded as "{epochMillis}_{id}".
+     */
+    private record HistoryCursor(Date timeStamp, Long id) {
+        static String encode(ChatMessage message) {
+            return String.format("%d_%d", message.getTimeStamp().getTime(), message.getId());
+        }
+
+        static HistoryCursor decode(String cursor) {
+            String[] parts = cursor.split("_");
+            if (parts.length != 2) {
+                throw new InvalidCursorException(cursor);
+            }
+            try {
+                return new HistoryCursor(new Date(Long.parseLong(parts[0])), Long.parseLong(parts[1]));
+            } catch (NumberFormatException e) {
+                throw new InvalidCursorException(cursor);
+            }
+        }
+    }
 }
@@ -0,0 +1,281 @@
+package com.example.chat_v1.service;
+
+import com.example.chat_v1.entity.Attachment;
+import com.example.chat_v1.entity.ChatMessage;
+import com.example.chat_v1.exception.WriteBehindQueueFullException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists chat messages off the WebSocket thread when
+ * {@code chat.persistence.write-behind.enabled} is set.
+ * <p>
+ * Accepted messages already carry their final id and timestamp and are inserted
+ * by a single writer thread with JDBC batches, flushed when a batch fills up or the
+ * flush interval elapses. A single FIFO writer keeps the per-chat order; every message
+ * goes through the queue, so when it is full senders wait for room instead of being
+ * written around it. Message
+ * notifications are published only after their batch commits, and inbox summaries
+ * are updated in the same transaction as the batch. Batches that fail to
+ * commit, and whatever is still queued at shutdown and cannot be written, are spilled
+ * to a file and replayed on the next start. Only the messages a batch actually inserts
+ * count towards the inbox and get notified, so replaying a message that was already
+ * written does nothing.
+ */
+@Service
+public class ChatMessageWriteBehindWriter {
+    private static final String INSERT_ATTACHMENT_SQL =
+            "INSERT INTO attachments (id, original_filename, content_type, size) VALUES (?, ?, ?, ?) ON CONFLICT (id) DO NOTHING";
+    private static final String INSERT_MESSAGE_SQL =
+            "INSERT INTO chat_message (id, chat_id, sender_id, receiver_id, content, time_stamp, attachment_id) VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT (id) DO NOTHING";
+    // Draws from the identity sequence so synchronous saves and pre-allocated ids never collide
+    private static final String ALLOCATE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('chat_message', 'id')) FROM generate_series(1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MessageNotificationCoalescer messageNotificationCoalescer;
+    private final ConversationSummaryService conversationSummaryService;
+    private final ObjectMapper objectMapper;
+    private final Logger LOGGER = LoggerFactory.getLogger(ChatMessageWriteBehindWriter.class);
+
+    @Value("${chat.persistence.write-behind.enabled:false}")
+    private boolean enabled;
+    @Value("${chat.persistence.write-behind.batch-size:100}")
+    private int batchSize;
+    @Value("${chat.persistence.write-behind.flush-interval-ms:200}")
+    private long flushIntervalMs;
+    @Value("${chat.persistence.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+    @Value("${chat.persistence.write-behind.enqueue-timeout-ms:5000}")
+    private long enqueueTimeoutMs;
+    @Value("${chat.persistence.write-behind.spill-file:chat-write-behind-spill.jsonl}")
+    private String spillFile;
+
+    private BlockingQueue<ChatMessage> pending;
+    private final Deque<Long> allocatedIds = new ArrayDeque<>();
+    private Thread writerThread;
+    private volatile boolean running;
+
+    public ChatMessageWriteBehindWriter(JdbcTemplate jdbcTemplate,
+                                        TransactionTemplate transactionTemplate,
+                                        MessageNotificationCoalescer messageNotificationCoalescer,
+                                        ConversationSummaryService conversationSummaryService,
+                                        ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.messageNotificationCoalescer = messageNotificationCoalescer;
+        this.conversationSummaryService = conversationSummaryService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        pending = new ArrayBlockingQueue<>(queueCapacity);
+        replaySpillFile();
+        running = true;
+        writerThread = new Thread(this::runWriter, "chat-write-behind");
+        writerThread.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized Long nextId() {
+        if (allocatedIds.isEmpty()) {
+            allocatedIds.addAll(jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, batchSize));
+        }
+        return allocatedIds.poll();
+    }
+
+    /**
+     * Queues a message with its id, chatId and timestamp already set, waiting up to
+     * {@code enqueue-timeout-ms} while the queue is full.
+     *
+     * @throws WriteBehindQueueFullException when there was no room in time, or the writer is stopping
+     */
+    public void enqueue(ChatMessage chatMessage) {
+        boolean accepted = false;
+        try {
+            accepted = running && pending.offer(chatMessage, enqueueTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!accepted) {
+            throw new WriteBehindQueueFullException(chatMessage.getChatId());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Anything the writer did not get to goes to disk
+        List<ChatMessage> remaining = new ArrayList<>();
+        pending.drainTo(remaining);
+        if (!remaining.isEmpty() && !flush(remaining)) {
+            spill(remaining);
+        }
+    }
+
+    private void runWriter() {
+        List<ChatMessage> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    ChatMessage next = pending.poll(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    pending.drainTo(batch, batchSize - batch.size());
+                }
+            } catch (InterruptedException e) {
+                // Shutting down: write what we have, stop() takes care of the rest
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    if (!flush(batch)) {
+                        spill(batch);
+                    }
+                } catch (RuntimeException e) {
+                    // Keep the writer alive, otherwise every later send waits on a queue nobody drains
+                    LOGGER.error(String.format("Chat write-behind writer failed on a batch of %d messages", batch.size()), e);
+                }
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+
+    private boolean flush(List<ChatMessage> batch) {
+        List<ChatMessage> inserted;
+        try {
+            inserted = transactionTemplate.execute(status -> {
+                List<Object[]> attachmentRows = batch.stream()
+                        .map(ChatMessage::getAttachment)
+                        .filter(Objects::nonNull)
+                        .map(attachment -> new Object[]{attachment.getId(), attachment.getOriginalFilename(), attachment.getContentType(), attachment.getSize()})
+                        .toList();
+                if (!attachmentRows.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_ATTACHMENT_SQL, attachmentRows);
+                }
+                int[] rowCounts = jdbcTemplate.batchUpdate(INSERT_MESSAGE_SQL, batch.stream().map(this::toRow).toList(),
+                        new int[]{Types.BIGINT, Types.VARCHAR, Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.TIMESTAMP, Types.BIGINT});
+                // A replayed message that is already there must not be counted as unread again
+                List<ChatMessage> newMessages = new ArrayList<>(batch.size());
+                for (int i = 0; i < rowCounts.length; i++) {
+                    if (rowCounts[i] != 0) {
+                        newMessages.add(batch.get(i));
+                    }
+                }
+                if (!newMessages.isEmpty()) {
+                    conversationSummaryService.recordMessages(newMessages);
+                }
+                return newMessages;
+            });
+        } catch (Exception e) {
+            LOGGER.error(String.format("Could not persist a batch of %d chat messages", batch.size()), e);
+            return false;
+        }
+        for (ChatMessage chatMessage : inserted) {
+            try {
+                messageNotificationCoalescer.onMessageSent(chatMessage);
+            } catch (RuntimeException e) {
+                // The message is stored, only its notification is lost
+                LOGGER.error(String.format("Could not notify chat message %d", chatMessage.getId()), e);
+            }
+        }
+        return true;
+    }
+
+    private Object[] toRow(ChatMessage chatMessage) {
+        Attachment attachment = chatMessage.getAttachment();
+        return new Object[]{
+                chatMessage.getId(),
+                chatMessage.getChatId(),
+                chatMessage.getSenderId(),
+                chatMessage.getReceiverId(),
+                chatMessage.getContent(),
+                new Timestamp(chatMessage.getTimeStamp().getTime()),
+                attachment != null ? attachment.getId() : null
+        };
+    }
+
+    private synchronized void spill(List<ChatMessage> batch) {
+        Path path = Paths.get(spillFile);
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (ChatMessage chatMessage : batch) {
+                writer.write(objectMapper.writeValueAsString(chatMessage));
+                writer.newLine();
+            }
+            LOGGER.warn(String.format("Spilled %d chat messages to %s", batch.size(), path.toAbsolutePath()));
+        } catch (IOException e) {
+            LOGGER.error(String.format("Could not spill %d chat messages, they are lost", batch.size()), e);
+        }
+    }
+
+    private void replaySpillFile() {
+        Path path = Paths.get(spillFile);
+        if (!Files.exists(path)) {
+            return;
+        }
+        try {
+            List<ChatMessage> spilled = new ArrayList<>();
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    spilled.add(objectMapper.readValue(line, ChatMessage.class));
+                }
+            }
+            for (int i = 0; i < spilled.size(); i += batchSize) {
+                if (!flush(spilled.subList(i, Math.min(i + batchSize, spilled.size())))) {
+                    LOGGER.error(String.format("Could not replay spilled chat messages, keeping %s", path.toAbsolutePath()));
+                    return;
+                }
+            }
+            Files.delete(path);
+            LOGGER.info(String.format("Replayed %d spilled chat messages", spilled.size()));
+        } catch (IOException e) {
+            LOGGER.error(String.format("Could not read spilled chat messages from %s", path.toAbsolutePath()), e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.chat_v1.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded LRU map from a pair of users to their conversation chatId. Both
+ * directions of a conversation share the chatId, so the pair is stored in
+ * canonical (lower id first) order.
+ */
+@Service
+public class ChatRoomIdCache {
+    private final Map<String, String> chatIdsByPair;
+
+    public ChatRoomIdCache(@Value("${chat.chatroom-cache.max-size:10000}") int maxSize) {
+        this.chatIdsByPair = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public static String canonicalChatId(Long userId, Long otherUserId) {
+        return String.format("%d_%d", Math.min(userId, otherUserId), Math.max(userId, otherUserId));
+    }
+
+    public synchronized Optional<String> get(Long userId, Long otherUserId) {
+        return Optional.ofNullable(chatIdsByPair.get(canonicalChatId(userId, otherUserId)));
+    }
+
+    public synchronized void put(Long userId, Long otherUserId, String chatId) {
+        chatIdsByPair.put(canonicalChatId(userId, otherUserId), chatId);
+    }
+}
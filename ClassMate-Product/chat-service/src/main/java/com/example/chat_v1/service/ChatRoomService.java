@@ -13,6 +13,8 @@ import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -31,16 +33,20 @@ public class ChatRoomService {
 
     private final ChatEventsPublisher chatEventsPublisher;
 
+    private final ChatRoomIdCache chatRoomIdCache;
+
     public ChatRoomService(
             ChatRoomRepository chatRoomRepository,
             ChatRoomMapper chatRoomMapper,
             ChatEventsPublisher chatEventsPublisher,
-            IChatClient chatClient)
+            IChatClient chatClient,
+            ChatRoomIdCache chatRoomIdCache)
     {
         this.chatRoomRepository = chatRoomRepository;
         this.chatEventsPublisher = chatEventsPublisher;
         this.chatRoomMapper = chatRoomMapper;
         this.chatClient = chatClient;
+        this.chatRoomIdCache = chatRoomIdCache;
     }
 
     public List<ChatRoomOutputDTO> findChatroomsBySender(Long senderId){
@@ -59,19 +65,29 @@ public class ChatRoomService {
             Long receiverId,
             boolean createNewRoomIfNotExists
     ) {
-        LOGGER.info("llego a getChatRoomId()");
-        return chatRoomRepository.findBySenderIdAndReceiverId(senderId, receiverId)
-                .map(ChatRoom::getChatId)
-                .or(() -> {
-                    if(createNewRoomIfNotExists){
-                        LOGGER.info("llego a .or()");
-                        LOGGER.info(String.format("senderID %d", senderId));
-                        LOGGER.info(String.format("receiverId %d", receiverId));
-                        String chatId = createChatRoom(senderId, receiverId);
-                        return Optional.of(chatId);
-                    }
-                    return Optional.empty();
-                });
+        Optional<String> cachedChatId = chatRoomIdCache.get(senderId, receiverId);
+        if (cachedChatId.isPresent()) {
+            return cachedChatId;
+        }
+        Optional<String> existingChatId = chatRoomRepository.findBySenderIdAndReceiverId(senderId, receiverId)
+                .map(ChatRoom::getChatId);
+        if (existingChatId.isPresent()) {
+            chatRoomIdCache.put(senderId, receiverId, existingChatId.get());
+            return existingChatId;
+        }
+        if (!createNewRoomIfNotExists) {
+            return Optional.empty();
+        }
+        LOGGER.info(String.format("Creating chatroom between %d and %d", senderId, receiverId));
+        String chatId = createChatRoom(senderId, receiverId);
+        // Cached only once the rooms are committed, a rollback must not leave an id that does not exist
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                chatRoomIdCache.put(senderId, receiverId, chatId);
+            }
+        });
+        return Optional.of(chatId);
     }
 
     @Transactional
@@ -91,28 +107,23 @@ public class ChatRoomService {
 
     @Transactional
     protected String createChatRoom(Long senderId, Long receiverId){
-        String chatId = String.format("%d_%d", senderId, receiverId);
-        ChatRoom senderReceiver = ChatRoom.builder()
-                .chatId(chatId)
-                .senderId(senderId)
-                .receiverId(receiverId)
-                .build();
-        ChatRoom receiverSender = ChatRoom.builder()
-                .chatId(chatId)
-                .senderId(receiverId)
-                .receiverId(senderId)
-                .build();
-        senderReceiver = chatRoomRepository.save(senderReceiver);
-        receiverSender = chatRoomRepository.save(receiverSender);
-        //agregar chatrooms a cada user mediante RabbitMQ
-        chatEventsPublisher.publishAddChatroom(AddChatroomDTO.builder()
-                .chatroomId(senderReceiver.getId())
-                .userId(senderId)
-                .build());
-        chatEventsPublisher.publishAddChatroom(AddChatroomDTO.builder()
-                .chatroomId(receiverSender.getId())
-                .userId(receiverId)
-                .build());
-        return chatId;
+        // Same id whoever writes first, and the unique (sender_id, receiver_id) constraint stops duplicate rooms
+        String chatId = ChatRoomIdCache.canonicalChatId(senderId, receiverId);
+        ChatRoom senderReceiver = createChatRoomIfAbsent(chatId, senderId, receiverId);
+        createChatRoomIfAbsent(chatId, receiverId, senderId);
+        return senderReceiver.getChatId();
+    }
+
+    private ChatRoom createChatRoomIfAbsent(String chatId, Long senderId, Long receiverId) {
+        boolean created = chatRoomRepository.insertIfAbsent(chatId, senderId, receiverId) > 0;
+        ChatRoom chatRoom = chatRoomRepository.findBySenderIdAndReceiverId(senderId, receiverId).orElseThrow();
+        if (created) {
+            //agregar chatroom al user mediante RabbitMQ
+            chatEventsPublisher.publishAddChatroom(AddChatroomDTO.builder()
+                    .chatroomId(chatRoom.getId())
+                    .userId(senderId)
+                    .build());
+        }
+        return chatRoom;
     }
 }
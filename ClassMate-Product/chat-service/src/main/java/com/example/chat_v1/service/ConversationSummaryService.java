@@ -0,0 +1,154 @@
+package com.example.chat_v1.service;
+
+import com.example.chat_v1.dto.chatroom.ConversationSummaryDTO;
+import com.example.chat_v1.entity.Attachment;
+import com.example.chat_v1.entity.ChatMessage;
+import com.example.chat_v1.entity.ChatUser;
+import com.example.chat_v1.repository.ChatUserRepository;
+import com.example.chat_v1.repository.ConversationSummaryRepository;
+import com.example.chat_v1.service.mapper.ChatRoomMapper;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the per-user inbox rows. Every sent message touches two rows, the
+ * sender's (preview only) and the receiver's (preview plus one unread), and a
+ * batch of messages is folded into one upsert per row. Rows are always locked
+ * in (ownerId, peerId) order, so two users writing to each other at the same
+ * time cannot deadlock on each other's rows.
+ */
+@Service
+public class ConversationSummaryService {
+    private static final int SNIPPET_LENGTH = 100;
+
+    private final ConversationSummaryRepository conversationSummaryRepository;
+    private final ChatUserRepository chatUserRepository;
+    private final ChatRoomMapper chatRoomMapper;
+    private final Logger LOGGER = LoggerFactory.getLogger(ConversationSummaryService.class);
+
+    public ConversationSummaryService(ConversationSummaryRepository conversationSummaryRepository,
+                                      ChatUserRepository chatUserRepository,
+                                      ChatRoomMapper chatRoomMapper) {
+        this.conversationSummaryRepository = conversationSummaryRepository;
+        this.chatUserRepository = chatUserRepository;
+        this.chatRoomMapper = chatRoomMapper;
+    }
+
+    public List<ConversationSummaryDTO> getInbox(Long userId) {
+        return conversationSummaryRepository.findByOwnerIdOrderByLastMessageTimeStampDesc(userId).stream()
+                .map(chatRoomMapper::mapConversationSummaryToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public void markAsRead(Long userId, Long peerId) {
+        conversationSummaryRepository.markAsRead(userId, peerId);
+    }
+
+    @Transactional
+    public void updatePeerSnapshot(Long peerId, String nickname, Long photoId) {
+        conversationSummaryRepository.updatePeerSnapshot(peerId, nickname, photoId);
+    }
+
+    /**
+     * Must run inside the transaction that persists the messages.
+     */
+    public void recordMessages(List<ChatMessage> chatMessages) {
+        Map<SummaryRow, PendingSummary> pending = new TreeMap<>();
+        for (ChatMessage chatMessage : chatMessages) {
+            pending.computeIfAbsent(new SummaryRow(chatMessage.getSenderId(), chatMessage.getReceiverId()),
+                    key -> new PendingSummary(chatMessage.getSenderId(), chatMessage.getReceiverId()))
+                    .add(chatMessage, false);
+            pending.computeIfAbsent(new SummaryRow(chatMessage.getReceiverId(), chatMessage.getSenderId()),
+                    key -> new PendingSummary(chatMessage.getReceiverId(), chatMessage.getSenderId()))
+                    .add(chatMessage, true);
+        }
+
+        Set<Long> peerIds = new HashSet<>();
+        pending.values().forEach(summary -> peerIds.add(summary.peerId));
+        Map<Long, ChatUser> peers = chatUserRepository.findAllById(peerIds).stream()
+                .collect(Collectors.toMap(ChatUser::getUserId, Function.identity()));
+
+        for (PendingSummary summary : pending.values()) {
+            ChatMessage last = summary.lastMessage;
+            Optional<ChatUser> peer = Optional.ofNullable(peers.get(summary.peerId));
+            conversationSummaryRepository.upsertLastMessage(
+                    summary.ownerId,
+                    summary.peerId,
+                    last.getChatId(),
+                    last.getId(),
+                    last.getSenderId(),
+                    snippet(last),
+                    last.getTimeStamp(),
+                    summary.unreadDelta,
+                    peer.map(ChatUser::getNickname).orElse(null),
+                    peer.map(ChatUser::getPhotoId).orElse(null)
+            );
+        }
+    }
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (conversationSummaryRepository.count() > 0) {
+            return;
+        }
+        int inserted = conversationSummaryRepository.backfillFromChatRooms(SNIPPET_LENGTH);
+        if (inserted > 0) {
+            LOGGER.info(String.format("Seeded %d conversation summaries from existing chat rooms", inserted));
+        }
+    }
+
+    private String snippet(ChatMessage chatMessage) {
+        String content = chatMessage.getContent();
+        if (content == null || content.isBlank()) {
+            Attachment attachment = chatMessage.getAttachment();
+            return attachment != null ? attachment.getOriginalFilename() : "";
+        }
+        return content.length() > SNIPPET_LENGTH ? content.substring(0, SNIPPET_LENGTH) : content;
+    }
+
+    record SummaryRow(Long ownerId, Long peerId) implements Comparable<SummaryRow> {
+        private static final Comparator<SummaryRow> ORDER = Comparator.comparing(SummaryRow::ownerId).thenComparing(SummaryRow::peerId);
+
+        @Override
+        public int compareTo(SummaryRow other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    private static class PendingSummary {
+        private final Long ownerId;
+        private final Long peerId;
+        private ChatMessage lastMessage;
+        private int unreadDelta;
+
+        private PendingSummary(Long ownerId, Long peerId) {
+            this.ownerId = ownerId;
+            this.peerId = peerId;
+        }
+
+        private void add(ChatMessage chatMessage, boolean incoming) {
+            if (lastMessage == null || !chatMessage.getTimeStamp().before(lastMessage.getTimeStamp())) {
+                lastMessage = chatMessage;
+            }
+            if (incoming) {
+                unreadDelta++;
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.chat_v1.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * One-off rewrite of the chat rooms created before conversation ids were canonical. Those
+ * rooms used "{senderId}_{receiverId}" of whoever wrote first, and two users racing on the
+ * first message could end up with duplicate rows and a different chatId per direction, which
+ * also kept the schema update from adding the unique (sender_id, receiver_id) constraint.
+ * Messages, inbox rows and rooms are moved to "{lowerId}_{higherId}", duplicate rooms are
+ * merged into the oldest one and the constraint is added, all in one transaction. Runs after
+ * the write-behind spill file is replayed and before the listeners and the inbox backfill
+ * start; once every room is canonical and the constraint exists there is nothing left to do.
+ * Nodes starting together take turns on an advisory lock and check again once they hold it,
+ * so only the first one migrates.
+ */
+@Service
+@DependsOn({"entityManagerFactory", "chatMessageWriteBehindWriter"}) // chat_room must have been created by the schema update
+public class LegacyChatRoomMigration {
+    private static final String CONSTRAINT_NAME = "uk_chat_room_sender_id_receiver_id";
+    private static final String CANONICAL_ID = "LEAST(%1$s, %2$s) || '_' || GREATEST(%1$s, %2$s)";
+
+    private static final String NEEDS_MIGRATION_SQL =
+            "SELECT EXISTS (SELECT 1 FROM chat_room WHERE chat_id IS DISTINCT FROM " + canonical("sender_id", "receiver_id") + ") " +
+            "OR NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = '" + CONSTRAINT_NAME + "')";
+    private static final String REWRITE_MESSAGES_SQL =
+            "UPDATE chat_message SET chat_id = " + canonical("sender_id", "receiver_id") +
+            " WHERE chat_id IS DISTINCT FROM " + canonical("sender_id", "receiver_id");
+    private static final String REWRITE_SUMMARIES_SQL =
+            "UPDATE conversation_summary SET chat_id = " + canonical("owner_id", "peer_id") +
+            " WHERE chat_id IS DISTINCT FROM " + canonical("owner_id", "peer_id");
+    private static final String REWRITE_ROOMS_SQL =
+            "UPDATE chat_room SET chat_id = " + canonical("sender_id", "receiver_id") +
+            " WHERE chat_id IS DISTINCT FROM " + canonical("sender_id", "receiver_id");
+    // The oldest room of a pair is the one whose id was handed to auth-service first
+    private static final String DELETE_DUPLICATE_ROOMS_SQL =
+            "DELETE FROM chat_room r USING chat_room kept " +
+            "WHERE kept.sender_id = r.sender_id AND kept.receiver_id = r.receiver_id AND kept.id < r.id";
+    private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtext('legacy_chat_room_migration'))";
+    private static final String ADD_CONSTRAINT_SQL =
+            "ALTER TABLE chat_room ADD CONSTRAINT " + CONSTRAINT_NAME + " UNIQUE (sender_id, receiver_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Logger LOGGER = LoggerFactory.getLogger(LegacyChatRoomMigration.class);
+
+    public LegacyChatRoomMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(NEEDS_MIGRATION_SQL, Boolean.class))) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            // Another node may have migrated while we waited for the lock
+            jdbcTemplate.execute(LOCK_SQL);
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(NEEDS_MIGRATION_SQL, Boolean.class))) {
+                return;
+            }
+            int messages = jdbcTemplate.update(REWRITE_MESSAGES_SQL);
+            int summaries = jdbcTemplate.update(REWRITE_SUMMARIES_SQL);
+            int rooms = jdbcTemplate.update(REWRITE_ROOMS_SQL);
+            int duplicates = jdbcTemplate.update(DELETE_DUPLICATE_ROOMS_SQL);
+            Boolean hasConstraint = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = '" + CONSTRAINT_NAME + "')", Boolean.class);
+            if (!Boolean.TRUE.equals(hasConstraint)) {
+                jdbcTemplate.execute(ADD_CONSTRAINT_SQL);
+            }
+            LOGGER.info(String.format("Moved %d rooms, %d messages and %d inbox rows to canonical chat ids, merged %d duplicate rooms",
+                    rooms, messages, summaries, duplicates));
+        });
+    }
+
+    private static String canonical(String userColumn, String otherUserColumn) {
+        return String.format(CANONICAL_ID, userColumn, otherUserColumn);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.chat_v1.service;
+
+import com.example.chat_v1.dto.message.MessageNotificationEventDTO;
+import com.example.chat_v1.entity.ChatMessage;
+import com.example.chat_v1.entity.ChatUser;
+import com.example.chat_v1.publisher.ChatPublisher;
+import com.example.chat_v1.repository.ChatUserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides whether a sent message should produce a notification event. At most one
+ * event is emitted per (receiver, sender) pair within the coalescing window, none
+ * while the receiver has the conversation open, and each event carries the sender
+ * nickname so notification-service does not have to ask auth-service for it.
+ */
+@Service
+public class MessageNotificationCoalescer {
+    private static final int MAX_TRACKED_PAIRS = 50000;
+
+    private final ChatPublisher chatPublisher;
+    private final ChatUserRepository chatUserRepository;
+    private final PresenceService presenceService;
+
+    @Value("${chat.notifications.coalesce-window-ms:30000}")
+    private long coalesceWindowMs;
+
+    // "{receiverId}_{senderId}" -> last time an event was emitted
+    private final Map<String, Long> lastEmittedAt = new ConcurrentHashMap<>();
+
+    public MessageNotificationCoalescer(ChatPublisher chatPublisher,
+                                        ChatUserRepository chatUserRepository,
+                                        PresenceService presenceService) {
+        this.chatPublisher = chatPublisher;
+        this.chatUserRepository = chatUserRepository;
+        this.presenceService = presenceService;
+    }
+
+    public void onMessageSent(ChatMessage chatMessage) {
+        Long receiverId = chatMessage.getReceiverId();
+        Long senderId = chatMessage.getSenderId();
+        if (presenceService.isViewing(receiverId, senderId)) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        boolean[] emit = {false};
+        lastEmittedAt.compute(String.format("%d_%d", receiverId, senderId), (pair, last) -> {
+            if (last == null || now - last >= coalesceWindowMs) {
+                emit[0] = true;
+                return now;
+            }
+            return last;
+        });
+        if (!emit[0]) {
+            return;
+        }
+        if (lastEmittedAt.size() > MAX_TRACKED_PAIRS) {
+            lastEmittedAt.values().removeIf(last -> now - last >= coalesceWindowMs);
+        }
+
+        // Unknown users (created before chat-service kept a directory) fall back to the name lookup downstream
+        String senderName = chatUserRepository.findById(senderId)
+                .map(ChatUser::getNickname)
+                .orElse(null);
+        chatPublisher.publishMessageNotificationEvent(new MessageNotificationEventDTO(receiverId, senderId, senderName));
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.chat_v1.service;
+
+import com.example.chat_v1.dto.presence.PresenceBroadcastDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Who is online and which conversation they have open, across all chat-service nodes.
+ * <p>
+ * Each node tracks its own WebSocket sessions: a session becomes a user's when it
+ * subscribes to /user/{id}/queue/messages, stays alive through client heartbeats and
+ * any other presence message, and is dropped on disconnect or after
+ * {@code chat.presence.session-ttl-ms} of silence. Changes are broadcast to the other
+ * nodes as deltas, and every node re-broadcasts a full snapshot on a fixed interval;
+ * state from a node that stops broadcasting expires after {@code chat.presence.node-ttl-ms}.
+ */
+@Service
+public class PresenceService {
+    private static final Pattern USER_MESSAGES_SUBSCRIPTION = Pattern.compile("^/user/(\\d+)/queue/messages$");
+
+    private final RabbitTemplate rabbitTemplate;
+    private final Logger LOGGER = LoggerFactory.getLogger(PresenceService.class);
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${rabbitmq.chat-presence-exchange.name}")
+    private String chatPresenceExchange;
+    @Value("${chat.delivery.cluster-enabled:true}")
+    private boolean clusterEnabled;
+    @Value("${chat.presence.session-ttl-ms:60000}")
+    private long sessionTtlMs;
+    @Value("${chat.presence.node-ttl-ms:15000}")
+    private long nodeTtlMs;
+
+    private final Map<String, LocalSession> localSessions = new ConcurrentHashMap<>();
+    private final Map<String, RemoteNode> remoteNodes = new ConcurrentHashMap<>();
+
+    public PresenceService(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    public boolean isOnline(Long userId) {
+        if (localSessions.values().stream().anyMatch(session -> session.userId.equals(userId))) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        return remoteNodes.values().stream()
+                .anyMatch(node -> node.expiresAt > now && node.users.containsKey(userId));
+    }
+
+    public boolean isViewing(Long userId, Long peerId) {
+        if (localSessions.values().stream()
+                .anyMatch(session -> session.userId.equals(userId) && peerId.equals(session.activePeerId))) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        return remoteNodes.values().stream()
+                .anyMatch(node -> node.expiresAt > now && node.users.getOrDefault(userId, Set.of()).contains(peerId));
+    }
+
+    public void heartbeat(String sessionId, Long userId) {
+        if (touch(sessionId, userId)) {
+            broadcastUser(userId);
+        }
+    }
+
+    public void setActiveConversation(String sessionId, Long userId, Long peerId) {
+        touch(sessionId, userId);
+        LocalSession session = localSessions.get(sessionId);
+        if (session != null) {
+            session.activePeerId = peerId;
+        }
+        broadcastUser(userId);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        if (accessor.getDestination() == null || accessor.getSessionId() == null) {
+            return;
+        }
+        Matcher matcher = USER_MESSAGES_SUBSCRIPTION.matcher(accessor.getDestination());
+        if (matcher.matches()) {
+            heartbeat(accessor.getSessionId(), Long.valueOf(matcher.group(1)));
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        LocalSession session = localSessions.remove(event.getSessionId());
+        if (session != null) {
+            broadcastUser(session.userId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${chat.presence.broadcast-interval-ms:5000}")
+    public void expireAndBroadcast() {
+        long now = System.currentTimeMillis();
+        // Sessions whose disconnect never arrived (crashed browser, dropped proxy)
+        localSessions.entrySet().removeIf(entry -> {
+            boolean expired = now - entry.getValue().lastSeen > sessionTtlMs;
+            if (expired) {
+                LOGGER.info(String.format("Presence of user %d on session %s expired", entry.getValue().userId, entry.getKey()));
+            }
+            return expired;
+        });
+        remoteNodes.values().removeIf(node -> node.expiresAt <= now);
+
+        if (clusterEnabled) {
+            publish(PresenceBroadcastDTO.builder()
+                    .nodeId(nodeId)
+                    .snapshot(true)
+                    .onlineUsers(localUsers())
+                    .offlineUserIds(List.of())
+                    .build());
+        }
+    }
+
+    @RabbitListener(queues = "#{chatPresenceQueue.name}", autoStartup = "${chat.delivery.cluster-enabled:true}")
+    public void onBroadcast(PresenceBroadcastDTO broadcast) {
+        if (nodeId.equals(broadcast.getNodeId())) {
+            return;
+        }
+        RemoteNode node = remoteNodes.computeIfAbsent(broadcast.getNodeId(), id -> new RemoteNode());
+        if (broadcast.isSnapshot()) {
+            node.users.clear();
+        }
+        if (broadcast.getOnlineUsers() != null) {
+            node.users.putAll(broadcast.getOnlineUsers());
+        }
+        if (broadcast.getOfflineUserIds() != null) {
+            broadcast.getOfflineUserIds().forEach(node.users::remove);
+        }
+        node.expiresAt = System.currentTimeMillis() + nodeTtlMs;
+    }
+
+    // Returns true when the session was not known yet, i.e. the user may have just come online here
+    private boolean touch(String sessionId, Long userId) {
+        boolean[] created = {false};
+        localSessions.compute(sessionId, (id, session) -> {
+            if (session == null || !session.userId.equals(userId)) {
+                created[0] = true;
+                return new LocalSession(userId);
+            }
+            session.lastSeen = System.currentTimeMillis();
+            return session;
+        });
+        return created[0];
+    }
+
+    private void broadcastUser(Long userId) {
+        if (!clusterEnabled) {
+            return;
+        }
+        Set<Long> activePeers = localUsers().get(userId);
+        publish(PresenceBroadcastDTO.builder()
+                .nodeId(nodeId)
+                .snapshot(false)
+                .onlineUsers(activePeers != null ? Map.of(userId, activePeers) : Map.of())
+                .offlineUserIds(activePeers != null ? List.of() : List.of(userId))
+                .build());
+    }
+
+    private Map<Long, Set<Long>> localUsers() {
+        Map<Long, Set<Long>> users = new HashMap<>();
+        localSessions.values().forEach(session -> {
+            Set<Long> peers = users.computeIfAbsent(session.userId, id -> new HashSet<>());
+            if (session.activePeerId != null) {
+                peers.add(session.activePeerId);
+            }
+        });
+        return users;
+    }
+
+    private void publish(PresenceBroadcastDTO broadcast) {
+        try {
+            rabbitTemplate.convertAndSend(chatPresenceExchange, "", broadcast);
+        } catch (Exception e) {
+            // Presence is best effort, the next snapshot repairs any missed delta
+            LOGGER.error("Could not broadcast presence", e);
+        }
+    }
+
+    private static class LocalSession {
+        private final Long userId;
+        private volatile Long activePeerId;
+        private volatile long lastSeen = System.currentTimeMillis();
+
+        private LocalSession(Long userId) {
+            this.userId = userId;
+        }
+    }
+
+    private static class RemoteNode {
+        private final Map<Long, Set<Long>> users = new ConcurrentHashMap<>();
+        private volatile long expiresAt;
+    }
+}
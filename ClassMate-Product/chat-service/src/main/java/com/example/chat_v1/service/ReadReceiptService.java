@@ -0,0 +1,132 @@
+package com.example.chat_v1.service;
+
+import com.example.chat_v1.dto.chat.ReadReceiptDTO;
+import com.example.chat_v1.entity.ChatMessage;
+import com.example.chat_v1.repository.ChatMessageRepository;
+import com.example.chat_v1.repository.ConversationSummaryRepository;
+import com.example.chat_v1.repository.ReadReceiptRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read watermarks per (reader, peer). A receipt is pushed to the peer right away,
+ * while the database write is coalesced: only the highest watermark per pair
+ * reached since the last flush is written, together with resetting the reader's
+ * unread count in the inbox when nothing newer has arrived since. Watermarks are
+ * ordered by (time stamp, id) of the message read, the order the history shows.
+ */
+@Service
+public class ReadReceiptService {
+    private final ReadReceiptRepository readReceiptRepository;
+    private final ChatMessageRepository chatMessageRepository;
+    private final ConversationSummaryRepository conversationSummaryRepository;
+    private final ChatDeliveryService chatDeliveryService;
+    private final TransactionTemplate transactionTemplate;
+    private final Logger LOGGER = LoggerFactory.getLogger(ReadReceiptService.class);
+
+    // Watermarks stored before time stamps were recorded sort first
+    private static final Comparator<ReadReceiptDTO> WATERMARK_ORDER = Comparator
+            .comparing(ReadReceiptDTO::getLastReadTimeStamp, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(ReadReceiptDTO::getLastReadMessageId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    // "{readerId}_{peerId}" -> newest receipt not yet written
+    private final Map<String, ReadReceiptDTO> pending = new ConcurrentHashMap<>();
+
+    public ReadReceiptService(ReadReceiptRepository readReceiptRepository,
+                              ChatMessageRepository chatMessageRepository,
+                              ConversationSummaryRepository conversationSummaryRepository,
+                              ChatDeliveryService chatDeliveryService,
+                              TransactionTemplate transactionTemplate) {
+        this.readReceiptRepository = readReceiptRepository;
+        this.chatMessageRepository = chatMessageRepository;
+        this.conversationSummaryRepository = conversationSummaryRepository;
+        this.chatDeliveryService = chatDeliveryService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void markAsRead(Long readerId, Long peerId, Long lastReadMessageId, Date lastReadTimeStamp) {
+        if (lastReadTimeStamp == null) {
+            // Clients that only send the id: take the time stamp from the stored message
+            Optional<Date> storedTimeStamp = chatMessageRepository.findById(lastReadMessageId).map(ChatMessage::getTimeStamp);
+            if (storedTimeStamp.isEmpty()) {
+                LOGGER.warn(String.format("Ignoring read receipt of %d for unknown message %d", readerId, lastReadMessageId));
+                return;
+            }
+            lastReadTimeStamp = storedTimeStamp.get();
+        }
+        ReadReceiptDTO receipt = ReadReceiptDTO.builder()
+                .readerId(readerId)
+                .peerId(peerId)
+                .lastReadMessageId(lastReadMessageId)
+                .lastReadTimeStamp(lastReadTimeStamp)
+                .readAt(new Date())
+                .build();
+        ReadReceiptDTO merged = pending.merge(readerId + "_" + peerId, receipt, ReadReceiptService::newer);
+        if (merged == receipt) {
+            chatDeliveryService.deliverReadReceipt(receipt);
+        }
+    }
+
+    public ReadReceiptDTO getWatermark(Long readerId, Long peerId) {
+        ReadReceiptDTO stored = readReceiptRepository.findByReaderIdAndPeerId(readerId, peerId)
+                .map(receipt -> ReadReceiptDTO.builder()
+                        .readerId(receipt.getReaderId())
+                        .peerId(receipt.getPeerId())
+                        .lastReadMessageId(receipt.getLastReadMessageId())
+                        .lastReadTimeStamp(receipt.getLastReadTimeStamp())
+                        .readAt(receipt.getReadAt())
+                        .build())
+                .orElse(ReadReceiptDTO.builder().readerId(readerId).peerId(peerId).build());
+        ReadReceiptDTO unflushed = pending.get(readerId + "_" + peerId);
+        if (unflushed != null && (stored.getLastReadMessageId() == null
+                || WATERMARK_ORDER.compare(unflushed, stored) > 0)) {
+            return unflushed;
+        }
+        return stored;
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${chat.read-receipts.flush-interval-ms:1000}")
+    public void flush() {
+        List<ReadReceiptDTO> batch = new ArrayList<>();
+        for (String key : pending.keySet()) {
+            ReadReceiptDTO receipt = pending.remove(key);
+            if (receipt != null) {
+                batch.add(receipt);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        // Same row order as ConversationSummaryService, so a flush never deadlocks with a send
+        batch.sort(Comparator.comparing(receipt -> new ConversationSummaryService.SummaryRow(receipt.getReaderId(), receipt.getPeerId())));
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(receipt -> {
+                readReceiptRepository.upsertWatermark(receipt.getReaderId(), receipt.getPeerId(),
+                        receipt.getLastReadMessageId(), receipt.getLastReadTimeStamp(), receipt.getReadAt());
+                conversationSummaryRepository.markAsReadUpTo(receipt.getReaderId(), receipt.getPeerId(),
+                        receipt.getLastReadMessageId(), receipt.getLastReadTimeStamp());
+            }));
+        } catch (Exception e) {
+            LOGGER.error(String.format("Could not write %d read receipts, retrying on the next flush", batch.size()), e);
+            batch.forEach(receipt -> pending.merge(receipt.getReaderId() + "_" + receipt.getPeerId(), receipt,
+                    ReadReceiptService::newer));
+        }
+    }
+
+    private static ReadReceiptDTO newer(ReadReceiptDTO current, ReadReceiptDTO next) {
+        return WATERMARK_ORDER.compare(next, current) > 0 ? next : current;
+    }
+}
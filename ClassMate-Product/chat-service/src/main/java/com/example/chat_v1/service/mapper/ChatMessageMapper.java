@@ -24,6 +24,7 @@ public class ChatMessageMapper {
 
     public ChatMessageOutputDTO mapChatMessageToOutputDTO(ChatMessage chatMessage){
         ChatMessageOutputDTO chatMessageOutputDTO = ChatMessageOutputDTO.builder()
+                .id(chatMessage.getId())
                 .senderId(chatMessage.getSenderId())
                 .receiverId(chatMessage.getReceiverId())
                 .chatId(chatMessage.getChatId())
@@ -1,7 +1,9 @@
 package com.example.chat_v1.service.mapper;
 
 import com.example.chat_v1.dto.chatroom.ChatRoomOutputDTO;
+import com.example.chat_v1.dto.chatroom.ConversationSummaryDTO;
 import com.example.chat_v1.entity.ChatRoom;
+import com.example.chat_v1.entity.ConversationSummary;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -12,4 +14,6 @@ public interface ChatRoomMapper {
     @Mapping(source = "senderId", target = "senderId")
     @Mapping(source = "receiverId", target = "receiverId")
     ChatRoomOutputDTO mapChatRoomToOutputDTO(ChatRoom chatRoom);
+
+    ConversationSummaryDTO mapConversationSummaryToDTO(ConversationSummary conversationSummary);
 }
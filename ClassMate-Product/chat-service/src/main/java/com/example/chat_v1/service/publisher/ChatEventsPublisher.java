@@ -1,16 +1,16 @@
 package com.example.chat_v1.service.publisher;
 
+import com.classmate.messaging.outbox.OutboxPublisher;
 import com.example.chat_v1.dto.publisher.AddChatroomDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 public class ChatEventsPublisher {
 
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxPublisher outboxPublisher;
     private Logger LOGGER = LoggerFactory.getLogger(ChatEventsPublisher.class);
 
     @Value("${rabbitmq.queue.add-chatroom-queue}")
@@ -22,13 +22,13 @@ public class ChatEventsPublisher {
     @Value("${rabbitmq.chat-exchange.name}")
     private String chatExchange;
 
-    public ChatEventsPublisher(RabbitTemplate rabbitTemplate) {
-        this.rabbitTemplate = rabbitTemplate;
+    public ChatEventsPublisher(OutboxPublisher outboxPublisher) {
+        this.outboxPublisher = outboxPublisher;
     }
 
     public void publishAddChatroom(AddChatroomDTO addChatroomDTO){
         LOGGER.info(String.format("Sending addChatroomEvent. userId: %d, chatId: %d", addChatroomDTO.getUserId(), addChatroomDTO.getChatroomId()));
-        this.rabbitTemplate.convertAndSend(chatExchange, addChatroomRoutingKey, addChatroomDTO);
+        outboxPublisher.publish(chatExchange, addChatroomRoutingKey, addChatroomDTO);
     }
 
 }
@@ -1,4 +1,4 @@
-import { Component, OnInit, AfterViewChecked, ElementRef, ViewChild } from '@angular/core';
+import { Component, OnInit, OnDestroy, AfterViewChecked, ElementRef, ViewChild } from '@angular/core';
 import { FormBuilder, FormControl, FormGroup, Validators } from '@angular/forms';
 import { delay } from 'rxjs';
 import { User } from './../../../auth/dto/user-dto.interface';
@@ -6,8 +6,11 @@ import { UserProfileService } from '../../../services/user-profile.service';
 import { AuthServiceService } from '../../../auth/auth-service.service';
 import { ChatService } from '../../../services/chat.service';
 import { ChatRoomOutputDTO } from '../../../services/dto/chat/chatroom/chatroom-output-dto.interface';
+import { ConversationSummaryDTO } from '../../../services/dto/chat/chatroom/conversation-summary-dto.interface';
 import { ChatMessageOutputDTO } from '../../../services/dto/chat/chat-message/chat-message-output-dto.interface';
 import { ChatMessageInputDTO } from '../../../services/dto/chat/chat-message/chat-message-input-dto.interface';
+import { ChatMessagePageDTO } from '../../../services/dto/chat/chat-message/chat-message-page-dto.interface';
+import { ReadReceiptDTO } from '../../../services/dto/chat/chat-message/read-receipt-dto.interface';
 import { UserProfileResponseDTO } from '../../../services/dto/user-profile/user-profile-response-dto.interface';
 import { FileDTO } from '../../../services/dto/attachment/file-dto.interface';
 import { FileService } from '../../../services/file.service';
@@ -18,17 +21,21 @@ import { FileResponseDTO } from '../../../services/dto/attachment/file-response-
   templateUrl: './chat-container.component.html',
   styleUrl: './chat-container.component.css'
 })
-export class ChatContainerComponent implements OnInit, AfterViewChecked {
+export class ChatContainerComponent implements OnInit, OnDestroy, AfterViewChecked {
   public searchQuery: string = "";
   public searchResults: UserProfileResponseDTO[] = [];
   public knownUsers: UserProfileResponseDTO[] = [];
   public messagesList: ChatMessageOutputDTO[] = [];
   public selectedUser: UserProfileResponseDTO | undefined;
   public newMessagesUserIds: Set<number> = new Set();
-  public chatroomIds: number[] = [];
+  public conversationSummaries: Map<number, ConversationSummaryDTO> = new Map();
   public messageForm!: FormGroup;
   public selectedFile: File | undefined;
   public loggedUser!: User;
+  public historyCursor: string | null = null;
+  public loadingHistory: boolean = false;
+  public peerReadReceipt: ReadReceiptDTO | null = null;
+  private shouldScrollToBottom: boolean = true;
 
   @ViewChild('chatMessages') private chatMessagesContainer!: ElementRef;
 
@@ -43,12 +50,27 @@ export class ChatContainerComponent implements OnInit, AfterViewChecked {
   ngOnInit(): void {
     this.loggedUser = this._authService.getUser();
     this.initMessageForm();
-    this.getChatrooms();
+    this.getInbox();
     this.listenMessages();
+    this.listenReadReceipts();
+  }
+
+  ngOnDestroy(): void {
+    this._chatService.setActiveConversation(null);
   }
 
   ngAfterViewChecked(): void {
-    this.scrollToBottom();
+    if (this.shouldScrollToBottom) {
+      this.scrollToBottom();
+    }
+  }
+
+  public onMessagesScroll(): void {
+    const container = this.chatMessagesContainer.nativeElement;
+    this.shouldScrollToBottom = container.scrollTop + container.clientHeight >= container.scrollHeight - 10;
+    if (container.scrollTop === 0) {
+      this.loadOlderMessages();
+    }
   }
 
   private scrollToBottom(): void {
@@ -112,6 +134,7 @@ export class ChatContainerComponent implements OnInit, AfterViewChecked {
       messageOutput.attachment = newMessage.attachment;
     }
     this.removeFile();
+    this.shouldScrollToBottom = true;
     this.messagesList.push(messageOutput);
     this._chatService.sendMessage(newMessage);
     this.messageForm.get("messageInput")!.reset();
@@ -128,6 +151,7 @@ export class ChatContainerComponent implements OnInit, AfterViewChecked {
       return; // Don't reload the chat if already in the chat with this user
     }
     this.selectedUser = receiver;
+    this._chatService.setActiveConversation(receiver.userId);
     this.readMessage(receiver.userId);
     this.searchQuery = "";
     this.searchResults = [];
@@ -185,8 +209,12 @@ export class ChatContainerComponent implements OnInit, AfterViewChecked {
       console.log(message);
       this.getUnknownUsers(message);
       this.moveUserToTop(message.senderId);
+      this.updateConversationSummary(message);
       if (this.selectedUser && this.selectedUser.userId === message.senderId) {
         this.messagesList.push(message);
+        if (message.id) {
+          this._chatService.sendReadReceipt(message.senderId, message.id, message.timeStamp);
+        }
       } else {
         this.addUserAsNewMessage(message.senderId);
       }
@@ -209,17 +237,90 @@ export class ChatContainerComponent implements OnInit, AfterViewChecked {
     if (this.newMessagesUserIds.has(userId)) {
       this.newMessagesUserIds.delete(userId);
     }
+    const summary = this.conversationSummaries.get(userId);
+    if (summary) {
+      summary.unreadCount = 0;
+    }
+    this.peerReadReceipt = null;
+    this._chatService.getPeerReadReceipt(userId).subscribe((receipt: ReadReceiptDTO) => {
+      this.peerReadReceipt = receipt;
+    });
   }
 
-  private getChatrooms() {
-    this._chatService.getChatroomsBySender().subscribe((chatrooms: ChatRoomOutputDTO[]) => {
-      chatrooms.forEach((chatroom: ChatRoomOutputDTO) => {
-        this.chatroomIds.push(chatroom.id);
+  private listenReadReceipts() {
+    this._chatService.getReceiptSubject().subscribe((receipt: ReadReceiptDTO) => {
+      if (this.selectedUser && this.selectedUser.userId === receipt.readerId) {
+        this.peerReadReceipt = receipt;
+      }
+    });
+  }
+
+  // Only the newest of the logged user's messages carries the "Seen" marker; messages are
+  // ordered by (timeStamp, id) since ids are not handed out in send order
+  public isSeen(messageIndex: number): boolean {
+    const message: ChatMessageOutputDTO = this.messagesList[messageIndex];
+    const receipt = this.peerReadReceipt;
+    if (message.senderId != this.loggedUser.id || message.id == null
+      || receipt?.lastReadMessageId == null || receipt.lastReadTimeStamp == null) {
+      return false;
+    }
+    const isLastOwnMessage = !this.messagesList.slice(messageIndex + 1).some((m: ChatMessageOutputDTO) => m.senderId == this.loggedUser.id);
+    const sentAt = new Date(message.timeStamp).getTime();
+    const readUpTo = new Date(receipt.lastReadTimeStamp).getTime();
+    return isLastOwnMessage && (sentAt < readUpTo || (sentAt == readUpTo && message.id <= receipt.lastReadMessageId));
+  }
+
+  private updateConversationSummary(message: ChatMessageOutputDTO) {
+    const summary = this.conversationSummaries.get(message.senderId);
+    if (summary) {
+      summary.lastMessageSnippet = message.content;
+      summary.lastMessageTimeStamp = message.timeStamp;
+      summary.lastMessageSenderId = message.senderId;
+      if (!this.selectedUser || this.selectedUser.userId !== message.senderId) {
+        summary.unreadCount++;
+      }
+    }
+  }
+
+  // One call renders the whole sidebar: peers, previews and unread counts
+  private getInbox() {
+    this._chatService.getInbox().subscribe((summaries: ConversationSummaryDTO[]) => {
+      summaries.forEach((summary: ConversationSummaryDTO) => {
+        this.conversationSummaries.set(summary.peerId, summary);
+        if (summary.unreadCount > 0) {
+          this.newMessagesUserIds.add(summary.peerId);
+        }
       });
-      this.getKnownUsers();
+      this.knownUsers = summaries.map((summary: ConversationSummaryDTO) => ({
+        userId: summary.peerId,
+        nickname: summary.peerNickname,
+        profilePhoto: summary.peerPhotoId ? { photoId: summary.peerPhotoId } : undefined
+      } as UserProfileResponseDTO));
+      this.getMissingPeerProfiles(summaries);
+    }, err => {
+      console.log(err);
     });
   }
 
+  // Peers the chat service has no snapshot for yet (accounts older than the inbox)
+  private getMissingPeerProfiles(summaries: ConversationSummaryDTO[]) {
+    const missingPeerIds: number[] = summaries
+      .filter((summary: ConversationSummaryDTO) => !summary.peerNickname)
+      .map((summary: ConversationSummaryDTO) => summary.peerId);
+    if (missingPeerIds.length > 0) {
+      this._userProfileService.findMultipleUsers(missingPeerIds).subscribe((users: UserProfileResponseDTO[]) => {
+        users.forEach((user: UserProfileResponseDTO) => {
+          const index = this.knownUsers.findIndex((known: UserProfileResponseDTO) => known.userId === user.userId);
+          if (index > -1) {
+            this.knownUsers[index] = user;
+          }
+        });
+      }, err => {
+        console.log(err);
+      });
+    }
+  }
+
   private getUnknownUsers(message: ChatMessageOutputDTO) {
     let unknownUserIds: number | undefined = undefined;
 
@@ -241,16 +342,6 @@ export class ChatContainerComponent implements OnInit, AfterViewChecked {
     return this.knownUsers.some((user: UserProfileResponseDTO) => user.userId === userId);
   }
 
-  private getKnownUsers() {
-    if (this.chatroomIds.length > 0) {
-      this._chatService.getKnownUsers(this.chatroomIds).subscribe((userProfiles: UserProfileResponseDTO[]) => {
-        this.knownUsers = userProfiles;
-      }, err => {
-        console.log(err);
-      });
-    }
-  }
-
   private getNewUser(userId: number) {
     this._userProfileService.findUserProfileSearchById(userId).subscribe((u: UserProfileResponseDTO) => {
       console.log(u);
@@ -268,9 +359,35 @@ export class ChatContainerComponent implements OnInit, AfterViewChecked {
   }
 
   private getMessages(receiverId: number) {
-    this._chatService.loadMessages(this.loggedUser.id, receiverId).subscribe((messages: ChatMessageOutputDTO[]) => {
-      this.messagesList = messages;
+    this.historyCursor = null;
+    this._chatService.loadMessageHistory(this.loggedUser.id, receiverId).subscribe((page: ChatMessagePageDTO) => {
+      this.messagesList = page.messages;
+      this.historyCursor = page.nextCursor;
+      this.shouldScrollToBottom = true;
+      const lastMessage: ChatMessageOutputDTO | undefined = this.messagesList[this.messagesList.length - 1];
+      if (lastMessage?.id) {
+        this._chatService.sendReadReceipt(receiverId, lastMessage.id, lastMessage.timeStamp);
+      }
+    }, err => {
+      console.log(err);
+    });
+  }
+
+  private loadOlderMessages() {
+    if (!this.selectedUser || !this.historyCursor || this.loadingHistory) {
+      return;
+    }
+    const container = this.chatMessagesContainer.nativeElement;
+    const previousScrollHeight = container.scrollHeight;
+    this.loadingHistory = true;
+    this._chatService.loadMessageHistory(this.loggedUser.id, this.selectedUser.userId, this.historyCursor).subscribe((page: ChatMessagePageDTO) => {
+      this.messagesList = [...page.messages, ...this.messagesList];
+      this.historyCursor = page.nextCursor;
+      this.loadingHistory = false;
+      // Keep the message the user was looking at in place once the older ones are rendered
+      setTimeout(() => container.scrollTop = container.scrollHeight - previousScrollHeight);
     }, err => {
+      this.loadingHistory = false;
       console.log(err);
     });
   }
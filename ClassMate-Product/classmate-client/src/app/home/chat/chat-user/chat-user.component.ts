@@ -1,5 +1,6 @@
 import { Component, Input, OnInit } from '@angular/core';
 import { UserProfileResponseDTO } from '../../../services/dto/user-profile/user-profile-response-dto.interface';
+import { ConversationSummaryDTO } from '../../../services/dto/chat/chatroom/conversation-summary-dto.interface';
 import { UserProfileService } from '../../../services/user-profile.service';
 
 @Component({
@@ -12,6 +13,7 @@ export class ChatUserComponent implements OnInit{
   @Input() public user!: UserProfileResponseDTO;
   @Input() public isSelected!: boolean;
   @Input() public hasNewMessage!: boolean;
+  @Input() public summary?: ConversationSummaryDTO;
 
   public userProfilePhotoUrl!: string;
 
@@ -28,7 +30,7 @@ export class ChatUserComponent implements OnInit{
   }
 
   private getUserProfilePhoto(photoId: number) {
-    this._userProfileService.getUserProfilePhoto(photoId).subscribe((resp: Blob) => {
+    this._userProfileService.getUserProfilePhotoThumbnail(photoId).subscribe((resp: Blob) => {
       this.userProfilePhotoUrl = URL.createObjectURL(resp);
     },
   err => {
@@ -64,7 +64,7 @@ export class NavComponent implements OnInit{
   }
 
   private getUserProfilePhoto(photoId: number) {
-    this._userProfileService.getUserProfilePhoto(photoId).subscribe((resp: Blob) => {
+    this._userProfileService.getUserProfilePhotoThumbnail(photoId).subscribe((resp: Blob) => {
       this.userProfilePhoto = URL.createObjectURL(resp);
     },
   err => {
@@ -88,7 +88,7 @@ export class ProfilePageComponent implements OnInit {
   }
 
   private getUserProfilePhoto(photoId: number) {
-    this._userProfileService.getUserProfilePhoto(photoId).subscribe((resp: Blob) => {
+    this._userProfileService.getUserProfilePhotoThumbnail(photoId, 'large').subscribe((resp: Blob) => {
       this.userProfilePhoto = resp;
       this.userProfilePhotoURL = URL.createObjectURL(resp);
     });
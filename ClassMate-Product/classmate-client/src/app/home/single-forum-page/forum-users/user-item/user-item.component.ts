@@ -134,7 +134,7 @@ export class UserItemComponent implements OnInit {
   }
 
   private loadUserProfilePhoto(photoId: number) {
-    this._userProfileService.getUserProfilePhoto(photoId).subscribe((resp: Blob) => {
+    this._userProfileService.getUserProfilePhotoThumbnail(photoId).subscribe((resp: Blob) => {
       this.userProfilePhotoUrl = URL.createObjectURL(resp);
     }, err => {
       console.error('Failed to load user photo:', err);
@@ -4,9 +4,13 @@ import { CompatClient, IMessage, Stomp } from '@stomp/stompjs';
 import { AuthServiceService } from '../auth/auth-service.service';
 import SockJS from 'sockjs-client';
 import { ChatMessageOutputDTO } from './dto/chat/chat-message/chat-message-output-dto.interface';
-import { BehaviorSubject, Observable, Subject } from 'rxjs';
+import { BehaviorSubject, Observable, Subject, interval, Subscription } from 'rxjs';
+import { ChatMessagePageDTO } from './dto/chat/chat-message/chat-message-page-dto.interface';
 import { ChatMessageInputDTO } from './dto/chat/chat-message/chat-message-input-dto.interface';
 import { ChatRoomOutputDTO } from './dto/chat/chatroom/chatroom-output-dto.interface';
+import { ConversationSummaryDTO } from './dto/chat/chatroom/conversation-summary-dto.interface';
+import { ReadReceiptDTO } from './dto/chat/chat-message/read-receipt-dto.interface';
+import { PresenceDTO } from './dto/chat/presence-dto.interface';
 import { UserProfileResponseDTO } from './dto/user-profile/user-profile-response-dto.interface';
 
 @Injectable({
@@ -19,6 +23,10 @@ export class ChatService {
   private stompClient!: CompatClient;
   private loggedUserId!: number;
   private messageSubject: Subject<ChatMessageOutputDTO> = new Subject<ChatMessageOutputDTO>();
+  private receiptSubject: Subject<ReadReceiptDTO> = new Subject<ReadReceiptDTO>();
+  private heartbeatSubscription?: Subscription;
+  // Must stay below chat.presence.session-ttl-ms on the server
+  private readonly heartbeatIntervalMs: number = 20000;
 
   constructor(
     private http:HttpClient,
@@ -46,9 +54,47 @@ export class ChatService {
         console.log("messageContent", messageContent);
         this.messageSubject.next(messageContent);
       })
+      this.stompClient.subscribe(`/user/${this.loggedUserId}/queue/receipts`, (message: IMessage) => {
+        this.receiptSubject.next(JSON.parse(message.body));
+      })
+      this.startHeartbeat();
     })
   }
 
+  private startHeartbeat(){
+    this.heartbeatSubscription?.unsubscribe();
+    this.heartbeatSubscription = interval(this.heartbeatIntervalMs).subscribe(() => {
+      if(this.stompClient.connected){
+        this.stompClient.send(`/app/presence.heartbeat`, {}, JSON.stringify({ userId: this.loggedUserId }));
+      }
+    });
+  }
+
+  public sendReadReceipt(peerId: number, lastReadMessageId: number, lastReadTimeStamp: Date){
+    if(!this.stompClient?.connected){
+      return;
+    }
+    this.stompClient.send(
+      `/app/chat.read`,
+      {},
+      JSON.stringify({ readerId: this.loggedUserId, peerId: peerId, lastReadMessageId: lastReadMessageId, lastReadTimeStamp: lastReadTimeStamp })
+    );
+  }
+
+  public getReceiptSubject(): Observable<ReadReceiptDTO> {
+    return this.receiptSubject.asObservable();
+  }
+
+  // How far peerId has read the logged user's messages
+  public getPeerReadReceipt(peerId: number): Observable<ReadReceiptDTO> {
+    return this.http.get<ReadReceiptDTO>(`${this.apiBaseUrl}/receipts/${peerId}/${this.loggedUserId}`);
+  }
+
+  public getPresence(userIds: number[]): Observable<PresenceDTO[]> {
+    const params: HttpParams = new HttpParams().set('userId', userIds.join(','));
+    return this.http.get<PresenceDTO[]>(`${this.apiBaseUrl}/presence`, { params });
+  }
+
   public sendMessage(chatMessage: ChatMessageInputDTO){
     this.stompClient.send(
       `/app/chat.sendMessage`,
@@ -57,6 +103,18 @@ export class ChatService {
     );
   }
 
+  // Lets the server skip message notifications for the conversation currently on screen
+  public setActiveConversation(peerId: number | null){
+    if(!this.stompClient?.connected){
+      return;
+    }
+    this.stompClient.send(
+      `/app/chat.activeConversation`,
+      {},
+      JSON.stringify({ userId: this.loggedUserId, peerId: peerId })
+    );
+  }
+
   public getMessageSubject(): Observable<ChatMessageOutputDTO> {
     return this.messageSubject.asObservable();
   }
@@ -65,10 +123,22 @@ export class ChatService {
     return this.http.get<ChatMessageOutputDTO[]>(`${this.apiBaseUrl}/${senderId}/${receiverId}`);
   }
 
+  public loadMessageHistory(senderId: number, receiverId: number, before?: string, size: number = 50): Observable<ChatMessagePageDTO> {
+    let params: HttpParams = new HttpParams().set('size', size);
+    if (before) {
+      params = params.set('before', before);
+    }
+    return this.http.get<ChatMessagePageDTO>(`${this.apiBaseUrl}/${senderId}/${receiverId}/history`, { params });
+  }
+
   public getChatroomsBySender(): Observable<ChatRoomOutputDTO[]>{
     return this.http.get<ChatRoomOutputDTO[]>(`${this.apiBaseUrl}/chatroom/${this.loggedUserId}`);
   }
 
+  public getInbox(): Observable<ConversationSummaryDTO[]> {
+    return this.http.get<ConversationSummaryDTO[]>(`${this.apiBaseUrl}/inbox/${this.loggedUserId}`);
+  }
+
   public getKnownUsers(chatroomIds : number[] ): Observable<UserProfileResponseDTO[]> {
     let accessToken : string = this._authService.getAccessToken();
     // let params: HttpParams = new HttpParams();
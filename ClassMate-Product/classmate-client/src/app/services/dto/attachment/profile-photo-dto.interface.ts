@@ -3,4 +3,5 @@ export interface ProfilePhotoDTO {
   originalFilename: string;
   contentType: string;
   size: number;
+  thumbnailUrl?: string;
 }
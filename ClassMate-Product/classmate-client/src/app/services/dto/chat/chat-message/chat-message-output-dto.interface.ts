@@ -1,6 +1,7 @@
 import { FileDTO } from "../../attachment/file-dto.interface";
 
 export interface ChatMessageOutputDTO {
+  id?: number;
   senderId: number;
   receiverId: number;
   chatId: string;
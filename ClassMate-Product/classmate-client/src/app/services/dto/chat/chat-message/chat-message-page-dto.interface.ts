@@ -0,0 +1,7 @@
+import { ChatMessageOutputDTO } from "./chat-message-output-dto.interface";
+
+export interface ChatMessagePageDTO {
+  messages: ChatMessageOutputDTO[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}
@@ -0,0 +1,7 @@
+export interface ReadReceiptDTO {
+  readerId: number;
+  peerId: number;
+  lastReadMessageId: number | null;
+  lastReadTimeStamp: Date | null;
+  readAt: Date | null;
+}
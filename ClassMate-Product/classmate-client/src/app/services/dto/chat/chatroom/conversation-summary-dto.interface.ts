@@ -0,0 +1,11 @@
+export interface ConversationSummaryDTO {
+  peerId: number;
+  peerNickname: string | null;
+  peerPhotoId: number | null;
+  chatId: string;
+  lastMessageId: number;
+  lastMessageSenderId: number;
+  lastMessageSnippet: string;
+  lastMessageTimeStamp: Date;
+  unreadCount: number;
+}
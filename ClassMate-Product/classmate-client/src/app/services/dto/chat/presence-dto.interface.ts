@@ -0,0 +1,4 @@
+export interface PresenceDTO {
+  userId: number;
+  online: boolean;
+}
@@ -4,4 +4,5 @@ export interface NotificationDTO {
   isSeen: boolean;
   type: string;
   creationDate: Date
+  aggregateCount: number; // Events collapsed into this notification
 }
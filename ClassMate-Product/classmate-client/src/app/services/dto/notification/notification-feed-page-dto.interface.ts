@@ -0,0 +1,7 @@
+import { NotificationDTO } from "./notification-dto.interface";
+
+export interface NotificationFeedPageDTO {
+  notifications: NotificationDTO[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}
@@ -1,11 +1,12 @@
 import { AuthServiceService } from '../auth/auth-service.service';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { ChangeDetectorRef, Injectable } from '@angular/core';
 import { CompatClient, Stomp } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
 import { NotificationDTO } from './dto/notification/notification-dto.interface';
 import { Observable, Subject } from 'rxjs';
 import { NotificationUpdateDTO } from './dto/notification/notification-update-dto.interface';
+import { NotificationFeedPageDTO } from './dto/notification/notification-feed-page-dto.interface';
 
 @Injectable({
   providedIn: 'root'
@@ -16,7 +17,7 @@ export class NotificationService {
   private apiBaseUrl: string = "http://localhost:8090/api/notifications";
   private socket!: WebSocket;
   private loggedUserId!: number;
-  private notificationSubject: Subject<NotificationDTO> = new Subject<NotificationDTO>();
+  private notificationSubject: Subject<NotificationDTO[]> = new Subject<NotificationDTO[]>();
 
   constructor(
     private http: HttpClient,
@@ -39,8 +40,9 @@ export class NotificationService {
     this.stompClient.connect({}, () => {
       // Subscribe to notifications for the logged in user
       this.stompClient.subscribe(`/topic/notifications/${this.loggedUserId}`, (message) => {
-        const notification: NotificationDTO = JSON.parse(message.body); // Parse the notification
-        this.notificationSubject.next(notification); // Push notification to subscribers
+        // The server batches notifications, one frame carries every new or updated notification
+        const notifications: NotificationDTO[] = JSON.parse(message.body);
+        this.notificationSubject.next(notifications); // Push notifications to subscribers
       });
     }, (error: any) => {
       console.error("WebSocket connection error:", error);
@@ -48,15 +50,34 @@ export class NotificationService {
   }
 
   // Observable to subscribe to notifications in components
-  public getNotificationSubject(): Observable<NotificationDTO> {
+  public getNotificationSubject(): Observable<NotificationDTO[]> {
     return this.notificationSubject.asObservable();
   }
 
-  // HTTP: Fetch all notifications for the logged-in user
-  public loadNotifications(page: number, size: number): Observable<any> {
-    return this.http.get<any>(`${this.apiBaseUrl}/user/${this.loggedUserId}?page=${page}&size=${size}`);
+  // HTTP: Fetch a page of notifications for the logged-in user, older than the given cursor
+  public loadNotifications(before: string | null, size: number): Observable<NotificationFeedPageDTO> {
+    let params: HttpParams = new HttpParams().set('size', size);
+    if (before) {
+      params = params.set('before', before);
+    }
+    return this.http.get<NotificationFeedPageDTO>(`${this.apiBaseUrl}/user/${this.loggedUserId}/feed`, { params });
+  }
+
+
+  // HTTP: Badge count, how many notifications the logged-in user has not seen
+  public getUnreadCount(): Observable<number> {
+    return this.http.get<number>(`${this.apiBaseUrl}/user/${this.loggedUserId}/unread-count`);
   }
 
+  // HTTP: Mark the given notification and every older one as seen (all of them when upTo is omitted).
+  // Returns how many notifications changed
+  public markAsSeen(upTo?: number): Observable<number> {
+    let params: HttpParams = new HttpParams();
+    if (upTo) {
+      params = params.set('upTo', upTo);
+    }
+    return this.http.put<number>(`${this.apiBaseUrl}/user/${this.loggedUserId}/seen`, null, { params });
+  }
 
   // HTTP: Mark notification as seen
   public updateNotification(notificationUpdate: NotificationUpdateDTO): Observable<void> {
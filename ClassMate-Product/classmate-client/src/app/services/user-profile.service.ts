@@ -31,6 +31,10 @@ export class UserProfileService {
     return this.http.get(`${this.baseUrl}/photo/${photoId}`, {responseType: 'blob'})
   }
 
+  public getUserProfilePhotoThumbnail( photoId: number, size: 'small' | 'medium' | 'large' = 'small' ): Observable<Blob>{
+    return this.http.get(`${this.baseUrl}/photo/${photoId}/thumbnail/${size}`, {responseType: 'blob'})
+  }
+
   public saveUserProfile( userProfileReq:UserProfileRequestDTO ): Observable<UserProfileResponseDTO>{
     const headers = new HttpHeaders();
     headers.append('Content-Type', 'multipart/form-data');
@@ -17,9 +17,10 @@ export class NotificationComponent implements OnInit, OnDestroy {
 
   notifications: NotificationDTO[] = [];
   private notificationSubscription!: Subscription;
-  private currentPage: number = 0;
+  private nextCursor: string | null = null;
   private pageSize: number = 10;
-  private totalPages: number = 0;
+  private hasMore: boolean = false;
+  public unreadCount: number = 0;
   public isLoading: boolean = false; // Track if data is being loaded
   public showNotifications: boolean = false;
 
@@ -32,20 +33,27 @@ export class NotificationComponent implements OnInit, OnDestroy {
 
   ngOnInit(): void {
     // Subscribe to real-time notifications
-    this.notificationSubscription = this._notificationService.getNotificationSubject().subscribe((notification: NotificationDTO) => {
-      this.handleNotification(notification);
+    this.notificationSubscription = this._notificationService.getNotificationSubject().subscribe((notifications: NotificationDTO[]) => {
+      notifications.forEach(notification => this.handleNotification(notification));
+      // A frame may carry merged rows that were already counted, the server counter knows
+      this.loadUnreadCount();
+      this.cdRef.markForCheck(); // One check per batch
     });
 
    // Load initial notifications
-    this.loadNotifications(this.currentPage);
+    this.loadNotifications();
+    this.loadUnreadCount();
 
   }
 
-  loadNotifications(page: number): void {
+  loadNotifications(): void {
     this.isLoading = true;
-    this._notificationService.loadNotifications(page, this.pageSize).subscribe(response => {
-      this.notifications = [...this.notifications, ...response.content]; // Append new notifications
-      this.totalPages = response.totalPages;
+    this._notificationService.loadNotifications(this.nextCursor, this.pageSize).subscribe(response => {
+      // Skip rows already shown, an aggregated notification can move up while paging
+      const shownIds = new Set(this.notifications.map(notification => notification.id));
+      this.notifications = [...this.notifications, ...response.notifications.filter(notification => !shownIds.has(notification.id))];
+      this.nextCursor = response.nextCursor;
+      this.hasMore = response.hasMore;
       this.isLoading = false; // Reset loading flag
       this.cdRef.markForCheck(); // Trigger change detection
     }, error => {
@@ -55,10 +63,18 @@ export class NotificationComponent implements OnInit, OnDestroy {
     });
   }
 
+  loadUnreadCount(): void {
+    this._notificationService.getUnreadCount().subscribe(count => {
+      this.unreadCount = count;
+      this.cdRef.markForCheck();
+    }, error => {
+      console.error("Failed to load unread notification count", error);
+    });
+  }
+
   loadMore(): void {
-    if (this.currentPage < this.totalPages - 1) {
-      this.currentPage++;
-      this.loadNotifications(this.currentPage);
+    if (this.hasMore) {
+      this.loadNotifications();
     }
   }
 
@@ -77,27 +93,26 @@ export class NotificationComponent implements OnInit, OnDestroy {
     }
   }
 
-  // Mark unseen notifications as seen and update the backend
+  // Mark everything up to the newest notification shown as seen, with a single request
   private markNotificationsAsSeen(): void {
-    const unseenNotifications: NotificationDTO[] = this.notifications.filter(notification => !notification.isSeen);
-
-    if (unseenNotifications.length > 0) {
-      unseenNotifications.forEach(notification => {
-        notification.isSeen = true; // Mark as seen in the UI
-        this._notificationService.updateNotification({ id: notification.id, isSeen: true }).subscribe(
-          () => {
-            console.log(`Notification ${notification.id} marked as seen`);
-          },
-          (error) => {
-            console.error(`Failed to mark notification ${notification.id} as seen`, error);
-          }
-        );
-      });
+    if (this.unreadCount === 0 || this.notifications.length === 0) {
+      return;
     }
+    const newestShown: NotificationDTO = this.notifications[0];
+    this.notifications.forEach(notification => notification.isSeen = true); // Mark as seen in the UI
+    this._notificationService.markAsSeen(newestShown.id).subscribe(
+      (marked: number) => {
+        this.unreadCount = Math.max(this.unreadCount - marked, 0);
+        this.cdRef.markForCheck();
+      },
+      (error) => {
+        console.error(`Failed to mark notifications up to ${newestShown.id} as seen`, error);
+      }
+    );
   }
 
   hasUnreadNotifications(): boolean {
-    return this.notifications.some(notification => !notification.isSeen);
+    return this.unreadCount > 0;
   }
 
   getNotificationText(notification: NotificationDTO): string {
@@ -107,6 +122,9 @@ export class NotificationComponent implements OnInit, OnDestroy {
         const truncatedTitle = commentNotification.title.length > 20
           ? commentNotification.title.substring(0, 20) + "..."
           : commentNotification.title;
+        if (commentNotification.aggregateCount > 1) {
+          return `Recibiste ${commentNotification.aggregateCount} comentarios en tu post: ${truncatedTitle}!`;
+        }
         return `Recibiste un comentario en tu post: ${truncatedTitle}! "`;
       }
 
@@ -171,6 +189,8 @@ export class NotificationComponent implements OnInit, OnDestroy {
 
   // Handle notifications based on their type
   handleNotification(notification: NotificationDTO): void {
+    // Aggregated notifications come back with the same id, replace the old entry
+    this.notifications = this.notifications.filter(existing => existing.id !== notification.id);
     switch (notification.type) {
       case "COMMENT":
         const commentNotification = notification as CommentNotificationDTO;
@@ -191,7 +211,6 @@ export class NotificationComponent implements OnInit, OnDestroy {
       default:
           console.warn("Unknown notification type", notification);
     }
-    this.cdRef.markForCheck();
   }
 
   // Hide the panel when clicked outside
@@ -211,9 +230,8 @@ export class NotificationComponent implements OnInit, OnDestroy {
     onScroll(): void {
       if ((window.innerHeight + window.scrollY) >= document.body.offsetHeight && !this.isLoading) {
         // When the user has scrolled to the bottom of the page
-        if (this.currentPage < this.totalPages - 1) {
-          this.currentPage++;
-          this.loadNotifications(this.currentPage);
+        if (this.hasMore) {
+          this.loadNotifications();
         }
       }
     }
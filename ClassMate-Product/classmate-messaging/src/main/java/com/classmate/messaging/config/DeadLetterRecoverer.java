@@ -0,0 +1,60 @@
+package com.classmate.messaging.config;
+
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
+import org.springframework.amqp.rabbit.retry.RepublishMessageRecovererWithConfirms;
+import org.springframework.expression.common.LiteralExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Where a message goes once the listener retries ran out: it is republished, with the exception
+ * in its x-exception-* headers, to the durable queue {@code <consumer queue>.dlq} through the
+ * default exchange, and only acknowledged once the broker confirmed the copy. If the copy cannot
+ * be published the message is requeued, so it is never dropped. Dead letter queues are declared
+ * the first time they are needed, which leaves the arguments of the consumer queues untouched.
+ * <p>
+ * A consumer batch fails as a whole, so every message of it is dead-lettered; if one of them
+ * cannot be, the batch is requeued, so the messages already copied may reach the dead letter
+ * queue twice.
+ */
+public class DeadLetterRecoverer extends RepublishMessageRecovererWithConfirms implements MessageBatchRecoverer {
+    public static final String DEAD_LETTER_SUFFIX = ".dlq";
+
+    private final AmqpAdmin amqpAdmin;
+    private final Set<String> declaredQueues = ConcurrentHashMap.newKeySet();
+
+    public DeadLetterRecoverer(RabbitTemplate rabbitTemplate, AmqpAdmin amqpAdmin,
+                               CachingConnectionFactory.ConfirmType confirmType) {
+        super(rabbitTemplate,
+                new LiteralExpression(""),
+                new SpelExpressionParser().parseExpression("messageProperties.consumerQueue + '" + DEAD_LETTER_SUFFIX + "'"),
+                confirmType);
+        this.amqpAdmin = amqpAdmin;
+    }
+
+    @Override
+    public void recover(List<Message> messages, Throwable cause) {
+        messages.forEach(message -> recover(message, cause));
+    }
+
+    @Override
+    protected void doSend(String exchange, String routingKey, Message message) {
+        if (declaredQueues.add(routingKey)) {
+            try {
+                amqpAdmin.declareQueue(QueueBuilder.durable(routingKey).build());
+            } catch (RuntimeException e) {
+                declaredQueues.remove(routingKey);
+                throw e;
+            }
+        }
+        super.doSend(exchange, routingKey, message);
+    }
+}
@@ -0,0 +1,65 @@
+package com.classmate.messaging.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Message converter of the service. Incoming messages are read as JSON or CBOR according to
+ * their content type, so consumers understand both while publishers move over; outgoing
+ * messages are written in {@code rabbitmq.converter.publish-content-type}. A publisher should
+ * only switch to CBOR once every consumer of its exchanges runs this converter.
+ */
+public class EventMessageConverter extends ContentTypeDelegatingMessageConverter {
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    private static final CBORMapper CBOR_MAPPER = new CBORMapper();
+
+    private final Jackson2JsonMessageConverter jsonConverter;
+    private final String publishContentType;
+
+    public EventMessageConverter(String publishContentType) {
+        this(new Jackson2JsonMessageConverter(), new Jackson2CborMessageConverter(), publishContentType);
+    }
+
+    private EventMessageConverter(Jackson2JsonMessageConverter jsonConverter,
+                                  Jackson2CborMessageConverter cborConverter,
+                                  String publishContentType) {
+        super(Jackson2CborMessageConverter.CONTENT_TYPE_CBOR.equals(publishContentType) ? cborConverter : jsonConverter);
+        if (!MessageProperties.CONTENT_TYPE_JSON.equals(publishContentType)
+                && !Jackson2CborMessageConverter.CONTENT_TYPE_CBOR.equals(publishContentType)) {
+            throw new IllegalArgumentException(String.format("Unsupported publish content type: %s", publishContentType));
+        }
+        this.jsonConverter = jsonConverter;
+        this.publishContentType = publishContentType;
+        addDelegate(MessageProperties.CONTENT_TYPE_JSON, jsonConverter);
+        addDelegate(Jackson2CborMessageConverter.CONTENT_TYPE_CBOR, cborConverter);
+    }
+
+    public String getPublishContentType() {
+        return publishContentType;
+    }
+
+    // The outbox stores JSON whatever the publish format is, so rows stay readable
+    public Message toJsonMessage(Object payload) {
+        return jsonConverter.toMessage(payload, new MessageProperties());
+    }
+
+    // Body of a stored JSON event in the publish format
+    public byte[] encodeStoredJson(String json) {
+        if (MessageProperties.CONTENT_TYPE_JSON.equals(publishContentType)) {
+            return json.getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            return CBOR_MAPPER.writeValueAsBytes(JSON_MAPPER.readTree(json));
+        } catch (IOException e) {
+            throw new MessageConversionException("Could not re-encode a stored event as CBOR", e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.classmate.messaging.config;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractMessageConverter;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.io.IOException;
+
+/**
+ * Jackson converter for CBOR, the binary encoding of the JSON data model. Messages keep the
+ * field names and type header of the JSON converter, numbers and strings are written in binary.
+ * The target type is resolved like the JSON converter does: the listener's parameter type,
+ * or the type header for class-level listeners.
+ */
+public class Jackson2CborMessageConverter extends AbstractMessageConverter {
+    public static final String CONTENT_TYPE_CBOR = "application/cbor";
+
+    private final CBORMapper cborMapper = CBORMapper.builder()
+            .findAndAddModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+    private final DefaultJackson2JavaTypeMapper typeMapper = new DefaultJackson2JavaTypeMapper();
+
+    public Jackson2CborMessageConverter() {
+        typeMapper.setTrustedPackages("*");
+    }
+
+    @Override
+    protected Message createMessage(Object object, MessageProperties messageProperties) {
+        byte[] body;
+        try {
+            body = cborMapper.writeValueAsBytes(object);
+        } catch (IOException e) {
+            throw new MessageConversionException("Could not write the message as CBOR", e);
+        }
+        messageProperties.setContentType(CONTENT_TYPE_CBOR);
+        messageProperties.setContentLength(body.length);
+        typeMapper.fromJavaType(cborMapper.constructType(object.getClass()), messageProperties);
+        return new Message(body, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        try {
+            return cborMapper.readValue(message.getBody(), typeMapper.toJavaType(message.getMessageProperties()));
+        } catch (IOException e) {
+            throw new MessageConversionException("Could not read the message as CBOR", e);
+        }
+    }
+}
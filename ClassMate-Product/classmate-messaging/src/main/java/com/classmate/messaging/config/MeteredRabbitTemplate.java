@@ -0,0 +1,88 @@
+package com.classmate.messaging.config;
+
+import com.rabbitmq.client.Channel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.batch.BatchingStrategy;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.BatchingRabbitTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Template behind every publisher of the service. Each message goes out with correlation data,
+ * so broker confirms and unroutable returns are counted per exchange in {@link RabbitPublishMetrics}
+ * and callers passing their own correlation data can wait on its future. Messages without an
+ * id get a random one, which consumers use to drop redeliveries.
+ * <p>
+ * Sends without correlation data to the same exchange and routing key are packed into one AMQP
+ * message by the batching strategy and split again by the listener containers. Sends with
+ * correlation data, like the outbox relay's, are never batched.
+ */
+public class MeteredRabbitTemplate extends BatchingRabbitTemplate {
+    private static final String DEFAULT_EXCHANGE = "(default)";
+
+    private final RabbitPublishMetrics publishMetrics;
+    private final ThreadPoolTaskScheduler batchScheduler;
+    private final Logger LOGGER = LoggerFactory.getLogger(MeteredRabbitTemplate.class);
+
+    public MeteredRabbitTemplate(ConnectionFactory connectionFactory,
+                                 BatchingStrategy batchingStrategy,
+                                 ThreadPoolTaskScheduler batchScheduler,
+                                 RabbitPublishMetrics publishMetrics) {
+        super(connectionFactory, batchingStrategy, batchScheduler);
+        this.batchScheduler = batchScheduler;
+        this.publishMetrics = publishMetrics;
+        // Unroutable messages come back instead of being dropped silently
+        setMandatory(true);
+        setReturnsCallback(returned -> {
+            publishMetrics.returned(exchangeName(returned.getExchange()));
+            LOGGER.warn(String.format("Message to exchange '%s' with routing key '%s' was returned: %s",
+                    returned.getExchange(), returned.getRoutingKey(), returned.getReplyText()));
+        });
+        setConfirmCallback((correlationData, ack, cause) -> {
+            if (!ack) {
+                LOGGER.error(String.format("Message %s was not confirmed by the broker: %s",
+                        correlationData != null ? correlationData.getId() : "without correlation", cause));
+            }
+        });
+    }
+
+    @Override
+    public void doSend(Channel channel, String exchangeArg, String routingKeyArg, Message message,
+                       boolean mandatory, @Nullable CorrelationData correlationData) {
+        String exchange = exchangeName(exchangeArg);
+        CorrelationData correlation = correlationData != null ? correlationData : new CorrelationData();
+        long sentAt = System.nanoTime();
+        correlation.getFuture().whenComplete((confirm, e) ->
+                publishMetrics.confirmed(exchange, confirm != null && confirm.isAck(), System.nanoTime() - sentAt));
+        publishMetrics.published(exchange);
+        MessageProperties properties = message.getMessageProperties();
+        // Lets the consumers measure their lag
+        if (properties.getTimestamp() == null) {
+            properties.setTimestamp(new Date());
+        }
+        // The messages of a batch would all inherit its id when split, so batches go without one
+        if (properties.getMessageId() == null && properties.getHeader(MessageProperties.SPRING_BATCH_FORMAT) == null) {
+            properties.setMessageId(UUID.randomUUID().toString());
+        }
+        super.doSend(channel, exchangeArg, routingKeyArg, message, mandatory, correlation);
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+        super.destroy();
+        batchScheduler.shutdown();
+    }
+
+    private static String exchangeName(String exchange) {
+        return exchange == null || exchange.isEmpty() ? DEFAULT_EXCHANGE : exchange;
+    }
+}
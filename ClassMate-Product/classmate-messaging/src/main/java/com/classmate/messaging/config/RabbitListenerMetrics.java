@@ -0,0 +1,84 @@
+package com.classmate.messaging.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Depth and lag of the queues this service listens to. Lag is the time between the publish
+ * timestamp set by the sending template (or the outbox row's creation) and the moment a
+ * consumer receives the message. Every {@code rabbitmq.listener.metrics.log-interval-ms} the
+ * ready messages and consumers of each queue are read from the broker and logged with the
+ * interval's received count and lag, and the counters start over.
+ */
+public class RabbitListenerMetrics {
+    private final AmqpAdmin amqpAdmin;
+    private final Map<String, QueueCounters> countersByQueue = new ConcurrentHashMap<>();
+    private final Logger LOGGER = LoggerFactory.getLogger(RabbitListenerMetrics.class);
+
+    public RabbitListenerMetrics(AmqpAdmin amqpAdmin) {
+        this.amqpAdmin = amqpAdmin;
+    }
+
+    void register(String queue) {
+        counters(queue);
+    }
+
+    void received(String queue, Message message) {
+        QueueCounters counters = counters(queue);
+        counters.received.increment();
+        Date timestamp = message.getMessageProperties().getTimestamp();
+        if (timestamp != null) {
+            long lagMs = Math.max(System.currentTimeMillis() - timestamp.getTime(), 0);
+            counters.timed.increment();
+            counters.lagMs.add(lagMs);
+            counters.maxLagMs.accumulate(lagMs);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${rabbitmq.listener.metrics.log-interval-ms:60000}")
+    public void log() {
+        countersByQueue.forEach((queue, counters) -> {
+            long received = counters.received.sumThenReset();
+            long timed = counters.timed.sumThenReset();
+            long lagMs = counters.lagMs.sumThenReset();
+            long maxLagMs = counters.maxLagMs.getThenReset();
+
+            QueueInformation queueInformation;
+            try {
+                queueInformation = amqpAdmin.getQueueInfo(queue);
+            } catch (AmqpException e) {
+                LOGGER.warn(String.format("Could not read the depth of queue '%s': %s", queue, e.getMessage()));
+                return;
+            }
+            int ready = queueInformation != null ? queueInformation.getMessageCount() : 0;
+            int consumers = queueInformation != null ? queueInformation.getConsumerCount() : 0;
+            if (received == 0 && ready == 0) {
+                return;
+            }
+            LOGGER.info(String.format("Queue '%s': %d ready, %d consumers, %d received, %d ms average lag, %d ms max lag",
+                    queue, ready, consumers, received, timed > 0 ? lagMs / timed : 0, maxLagMs));
+        });
+    }
+
+    private QueueCounters counters(String queue) {
+        return countersByQueue.computeIfAbsent(queue, name -> new QueueCounters());
+    }
+
+    private static class QueueCounters {
+        private final LongAdder received = new LongAdder();
+        private final LongAdder timed = new LongAdder();
+        private final LongAdder lagMs = new LongAdder();
+        private final LongAccumulator maxLagMs = new LongAccumulator(Long::max, 0);
+    }
+}
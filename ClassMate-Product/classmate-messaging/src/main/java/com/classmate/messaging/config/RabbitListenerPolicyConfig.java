@@ -0,0 +1,115 @@
+package com.classmate.messaging.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.config.ContainerCustomizer;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration;
+import org.springframework.boot.autoconfigure.amqp.RabbitProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * Applies the listener policy declared under {@code rabbitmq.listener.<queue name>.*} to the
+ * container of each {@code @RabbitListener}. Queues without a policy keep the defaults: one
+ * consumer, a prefetch of 250 and one acknowledgement per message.
+ * <ul>
+ *     <li>concurrent-consumers: consumers started with the container</li>
+ *     <li>max-consumers: consumers the container may add while the queue stays busy</li>
+ *     <li>prefetch: unacknowledged messages each consumer may hold</li>
+ *     <li>batch-size: messages acknowledged together; if one fails, the whole batch is redelivered</li>
+ *     <li>consumer-batch: hand those messages to the listener as one list, which must then be
+ *     declared with {@code batch = "true"}</li>
+ *     <li>receive-timeout-ms: how long a consumer waits for the next message before it acknowledges,
+ *     or delivers, a batch that is not full</li>
+ *     <li>virtual-threads: run the consumers on virtual threads (Java 21 and up)</li>
+ * </ul>
+ * Every container also reports what it receives to {@link RabbitListenerMetrics}. With
+ * {@code spring.rabbitmq.listener.simple.retry.enabled}, messages that still fail after the
+ * last attempt go to their queue's dead letter queue (see {@link DeadLetterRecoverer}).
+ */
+@AutoConfiguration(after = RabbitAutoConfiguration.class)
+public class RabbitListenerPolicyConfig {
+    private static final String POLICY_PREFIX = "rabbitmq.listener.";
+
+    private final Logger LOGGER = LoggerFactory.getLogger(RabbitListenerPolicyConfig.class);
+
+    @Bean
+    public RabbitListenerMetrics rabbitListenerMetrics(AmqpAdmin amqpAdmin) {
+        return new RabbitListenerMetrics(amqpAdmin);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.rabbitmq.listener.simple.retry.enabled", havingValue = "true")
+    @ConditionalOnMissingBean(MessageRecoverer.class)
+    public DeadLetterRecoverer deadLetterRecoverer(RabbitTemplate rabbitTemplate, AmqpAdmin amqpAdmin,
+                                                   RabbitProperties rabbitProperties) {
+        CachingConnectionFactory.ConfirmType confirmType = rabbitProperties.getPublisherConfirmType();
+        if (confirmType != CachingConnectionFactory.ConfirmType.CORRELATED
+                && confirmType != CachingConnectionFactory.ConfirmType.SIMPLE) {
+            throw new IllegalStateException("Dead lettering waits for broker confirms, set spring.rabbitmq.publisher-confirm-type");
+        }
+        return new DeadLetterRecoverer(rabbitTemplate, amqpAdmin, confirmType);
+    }
+
+    @Bean
+    public ContainerCustomizer<SimpleMessageListenerContainer> listenerPolicyCustomizer(Environment environment,
+                                                                                         RabbitListenerMetrics listenerMetrics) {
+        return container -> {
+            String queue = container.getQueueNames()[0];
+            String prefix = POLICY_PREFIX + queue + ".";
+
+            Integer maxConsumers = environment.getProperty(prefix + "max-consumers", Integer.class);
+            Integer concurrentConsumers = environment.getProperty(prefix + "concurrent-consumers", Integer.class);
+            Integer prefetch = environment.getProperty(prefix + "prefetch", Integer.class);
+            Integer batchSize = environment.getProperty(prefix + "batch-size", Integer.class);
+            Long receiveTimeoutMs = environment.getProperty(prefix + "receive-timeout-ms", Long.class);
+            // The maximum goes first, the container rejects a minimum above it
+            if (maxConsumers != null) {
+                container.setMaxConcurrentConsumers(maxConsumers);
+            }
+            if (concurrentConsumers != null) {
+                container.setConcurrentConsumers(concurrentConsumers);
+            }
+            if (prefetch != null) {
+                container.setPrefetchCount(prefetch);
+            }
+            if (batchSize != null) {
+                container.setBatchSize(batchSize);
+            }
+            if (environment.getProperty(prefix + "consumer-batch", Boolean.class, false)) {
+                container.setConsumerBatchEnabled(true);
+            }
+            if (receiveTimeoutMs != null) {
+                container.setReceiveTimeout(receiveTimeoutMs);
+            }
+            if (environment.getProperty(prefix + "virtual-threads", Boolean.class, false)) {
+                container.setTaskExecutor(consumerExecutor(queue));
+            }
+
+            container.addAfterReceivePostProcessors(message -> {
+                listenerMetrics.received(queue, message);
+                return message;
+            });
+            listenerMetrics.register(queue);
+        };
+    }
+
+    private SimpleAsyncTaskExecutor consumerExecutor(String queue) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(queue + "-");
+        if (Runtime.version().feature() >= 21) {
+            executor.setVirtualThreads(true);
+        } else {
+            LOGGER.warn(String.format("Virtual threads need Java 21, consumers of %s run on platform threads", queue));
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,65 @@
+package com.classmate.messaging.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publish counters per exchange, fed by {@link MeteredRabbitTemplate}: messages sent, confirmed,
+ * nacked (or lost with their channel) and returned as unroutable, and the average confirm
+ * latency. Exchanges with traffic are logged every {@code rabbitmq.publisher.metrics.log-interval-ms}
+ * and their counters start over.
+ */
+public class RabbitPublishMetrics {
+    private final Map<String, ExchangeCounters> countersByExchange = new ConcurrentHashMap<>();
+    private final Logger LOGGER = LoggerFactory.getLogger(RabbitPublishMetrics.class);
+
+    void published(String exchange) {
+        counters(exchange).published.increment();
+    }
+
+    void confirmed(String exchange, boolean ack, long latencyNanos) {
+        ExchangeCounters counters = counters(exchange);
+        (ack ? counters.acked : counters.nacked).increment();
+        counters.confirmNanos.add(latencyNanos);
+    }
+
+    void returned(String exchange) {
+        counters(exchange).returned.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${rabbitmq.publisher.metrics.log-interval-ms:60000}")
+    public void log() {
+        countersByExchange.forEach((exchange, counters) -> {
+            long published = counters.published.sumThenReset();
+            long acked = counters.acked.sumThenReset();
+            long nacked = counters.nacked.sumThenReset();
+            long returned = counters.returned.sumThenReset();
+            long confirmNanos = counters.confirmNanos.sumThenReset();
+            if (published == 0 && acked == 0 && nacked == 0 && returned == 0) {
+                return;
+            }
+            double averageConfirmMs = acked + nacked > 0
+                    ? (double) TimeUnit.NANOSECONDS.toMicros(confirmNanos) / (acked + nacked) / 1000 : 0;
+            LOGGER.info(String.format("Exchange '%s': %d published, %d confirmed, %d nacked, %d returned, %.2f ms average confirm",
+                    exchange, published, acked, nacked, returned, averageConfirmMs));
+        });
+    }
+
+    private ExchangeCounters counters(String exchange) {
+        return countersByExchange.computeIfAbsent(exchange, name -> new ExchangeCounters());
+    }
+
+    private static class ExchangeCounters {
+        private final LongAdder published = new LongAdder();
+        private final LongAdder acked = new LongAdder();
+        private final LongAdder nacked = new LongAdder();
+        private final LongAdder returned = new LongAdder();
+        private final LongAdder confirmNanos = new LongAdder();
+    }
+}
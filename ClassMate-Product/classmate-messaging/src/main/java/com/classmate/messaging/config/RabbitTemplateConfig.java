@@ -0,0 +1,63 @@
+package com.classmate.messaging.config;
+
+import org.springframework.amqp.rabbit.batch.BatchingStrategy;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.amqp.RabbitAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Publishing side of RabbitMQ. Confirm and return modes and the channel cache size are set
+ * with the spring.rabbitmq.* properties; batching is off unless
+ * {@code rabbitmq.publisher.batching.enabled} is set. Runs before Boot's RabbitMQ
+ * configuration, which then keeps this template instead of creating its own.
+ */
+@AutoConfiguration(before = RabbitAutoConfiguration.class)
+public class RabbitTemplateConfig {
+
+    @Value("${rabbitmq.publisher.batching.enabled:false}")
+    private boolean batchingEnabled;
+
+    @Value("${rabbitmq.publisher.batching.batch-size:100}")
+    private int batchSize;
+
+    @Value("${rabbitmq.publisher.batching.buffer-limit:65536}")
+    private int bufferLimit;
+
+    @Value("${rabbitmq.publisher.batching.timeout-ms:20}")
+    private long batchTimeoutMs;
+
+    @Bean
+    @ConditionalOnMissingBean(MessageConverter.class)
+    public EventMessageConverter converter(@Value("${rabbitmq.converter.publish-content-type:application/json}") String publishContentType) {
+        return new EventMessageConverter(publishContentType);
+    }
+
+    @Bean
+    public RabbitPublishMetrics rabbitPublishMetrics() {
+        return new RabbitPublishMetrics();
+    }
+
+    @Bean
+    public RabbitTemplate amqpTemplate(ConnectionFactory connectionFactory,
+                                       MessageConverter converter,
+                                       RabbitPublishMetrics publishMetrics) {
+        // A batch of one is sent as the plain message, so with batching off every send goes out right away
+        BatchingStrategy batchingStrategy = batchingEnabled
+                ? new SimpleBatchingStrategy(batchSize, bufferLimit, batchTimeoutMs)
+                : new SimpleBatchingStrategy(1, Integer.MAX_VALUE, batchTimeoutMs);
+        ThreadPoolTaskScheduler batchScheduler = new ThreadPoolTaskScheduler();
+        batchScheduler.setThreadNamePrefix("rabbit-batch-");
+        batchScheduler.initialize();
+
+        MeteredRabbitTemplate rabbitTemplate = new MeteredRabbitTemplate(connectionFactory, batchingStrategy, batchScheduler, publishMetrics);
+        rabbitTemplate.setMessageConverter(converter);
+        return rabbitTemplate;
+    }
+}
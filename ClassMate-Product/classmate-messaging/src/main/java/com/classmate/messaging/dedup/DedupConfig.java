@@ -0,0 +1,26 @@
+package com.classmate.messaging.dedup;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Redelivery filter for the listeners of services that set {@code rabbitmq.listener.dedup.enabled}.
+ * Adds this package to the ones scanned for entities and repositories, so processed_message is
+ * mapped next to the service's own tables; it has to run before the JPA configuration reads that list.
+ */
+@AutoConfiguration(before = {HibernateJpaAutoConfiguration.class, JpaRepositoriesAutoConfiguration.class})
+@ConditionalOnProperty(name = "rabbitmq.listener.dedup.enabled", havingValue = "true")
+@AutoConfigurationPackage
+public class DedupConfig {
+
+    @Bean
+    public MessageDeduplicator messageDeduplicator(ProcessedMessageRepository processedMessageRepository,
+                                                   @Value("${rabbitmq.listener.dedup.window-size:10000}") int windowSize) {
+        return new MessageDeduplicator(processedMessageRepository, windowSize);
+    }
+}
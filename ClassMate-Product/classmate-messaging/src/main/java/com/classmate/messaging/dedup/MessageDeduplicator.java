@@ -0,0 +1,84 @@
+package com.classmate.messaging.dedup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Lets listeners drop redelivered messages by their message id.
+ * <p>
+ * The id is recorded in processed_message in the listener's transaction, so it only counts
+ * as processed if the listener's changes commit, and a copy delivered concurrently waits for
+ * that outcome. Committed ids are also kept in a bounded LRU window of
+ * {@code rabbitmq.listener.dedup.window-size}, which drops most copies without a query. Rows
+ * older than {@code rabbitmq.listener.dedup.ttl-ms} are purged; copies arriving later than that
+ * are processed again.
+ */
+public class MessageDeduplicator {
+    private final ProcessedMessageRepository processedMessageRepository;
+    private final Map<String, Boolean> recentMessageIds;
+    private final Logger LOGGER = LoggerFactory.getLogger(MessageDeduplicator.class);
+
+    @Value("${rabbitmq.listener.dedup.ttl-ms:604800000}")
+    private long ttlMs;
+
+    public MessageDeduplicator(ProcessedMessageRepository processedMessageRepository,
+                               @Value("${rabbitmq.listener.dedup.window-size:10000}") int windowSize) {
+        this.processedMessageRepository = processedMessageRepository;
+        this.recentMessageIds = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > windowSize;
+            }
+        };
+    }
+
+    /**
+     * Returns false when the message was already processed and the listener should return.
+     * Messages published without an id are always processed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean firstDelivery(String messageId) {
+        if (messageId == null) {
+            return true;
+        }
+        boolean seen;
+        synchronized (this) {
+            seen = recentMessageIds.containsKey(messageId);
+        }
+        if (seen || processedMessageRepository.insertIfAbsent(messageId, LocalDateTime.now()) == 0) {
+            LOGGER.info(String.format("Dropping redelivered message %s", messageId));
+            remember(messageId);
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(messageId);
+            }
+        });
+        return true;
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${rabbitmq.listener.dedup.purge-interval-ms:3600000}")
+    public void purge() {
+        int purged = processedMessageRepository.deleteProcessedBefore(LocalDateTime.now().minusNanos(ttlMs * 1_000_000));
+        if (purged > 0) {
+            LOGGER.info(String.format("Purged %d processed message ids", purged));
+        }
+    }
+
+    private synchronized void remember(String messageId) {
+        recentMessageIds.put(messageId, Boolean.TRUE);
+    }
+}
@@ -0,0 +1,33 @@
+package com.classmate.messaging.dedup;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Id of a message a listener has processed, kept until it is old enough that no copy can
+ * still be redelivered. Written through {@code insertIfAbsent}, the entity only maps the table.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "processed_message", indexes = @Index(name = "idx_processed_message_processed_at", columnList = "processedAt"))
+public class ProcessedMessage {
+
+    @Id
+    @Column(length = 64)
+    private String messageId;
+
+    @Column(nullable = false)
+    private LocalDateTime processedAt;
+}
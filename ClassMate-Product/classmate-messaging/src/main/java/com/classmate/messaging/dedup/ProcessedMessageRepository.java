@@ -0,0 +1,21 @@
+package com.classmate.messaging.dedup;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface ProcessedMessageRepository extends JpaRepository<ProcessedMessage, String> {
+
+    // 1 when the id is new, 0 when it was already recorded; waits for a concurrent insert of the same id to settle
+    @Modifying
+    @Query(value = "INSERT INTO processed_message (message_id, processed_at) VALUES (:messageId, :processedAt) " +
+                   "ON CONFLICT (message_id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("messageId") String messageId, @Param("processedAt") LocalDateTime processedAt);
+
+    @Modifying
+    @Query(value = "DELETE FROM processed_message WHERE processed_at < :cutoff", nativeQuery = true)
+    int deleteProcessedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
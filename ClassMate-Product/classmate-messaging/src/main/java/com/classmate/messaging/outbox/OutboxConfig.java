@@ -0,0 +1,38 @@
+package com.classmate.messaging.outbox;
+
+import com.classmate.messaging.config.EventMessageConverter;
+import com.classmate.messaging.config.RabbitTemplateConfig;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Transactional outbox, for services that set {@code outbox.enabled}. Adds this package to the
+ * ones scanned for entities and repositories, so outbox_event is mapped next to the service's
+ * own tables; it has to run before the JPA configuration reads that list.
+ */
+@AutoConfiguration(after = RabbitTemplateConfig.class,
+        before = {HibernateJpaAutoConfiguration.class, JpaRepositoriesAutoConfiguration.class})
+@ConditionalOnProperty(name = "outbox.enabled", havingValue = "true")
+@AutoConfigurationPackage
+public class OutboxConfig {
+
+    @Bean
+    public OutboxPublisher outboxPublisher(OutboxEventRepository outboxEventRepository,
+                                           EventMessageConverter messageConverter) {
+        return new OutboxPublisher(outboxEventRepository, messageConverter);
+    }
+
+    @Bean
+    public OutboxRelay outboxRelay(OutboxEventRepository outboxEventRepository,
+                                   RabbitTemplate rabbitTemplate,
+                                   EventMessageConverter messageConverter,
+                                   TransactionTemplate transactionTemplate) {
+        return new OutboxRelay(outboxEventRepository, rabbitTemplate, messageConverter, transactionTemplate);
+    }
+}
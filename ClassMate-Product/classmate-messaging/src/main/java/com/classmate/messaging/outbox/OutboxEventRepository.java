@@ -0,0 +1,14 @@
+package com.classmate.messaging.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Oldest first; rows another instance is relaying are skipped instead of waited on
+    @Query(value = "SELECT * FROM outbox_event ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> findBatchForRelay(@Param("batchSize") int batchSize);
+}
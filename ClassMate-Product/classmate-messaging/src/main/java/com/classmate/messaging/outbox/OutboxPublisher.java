@@ -0,0 +1,40 @@
+package com.classmate.messaging.outbox;
+
+import com.classmate.messaging.config.EventMessageConverter;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Stands in for {@code rabbitTemplate.convertAndSend} in the publishers. The payload is
+ * converted to JSON right away and stored in the outbox, joining the caller's transaction
+ * when there is one, so the event only exists if the change commits. {@link OutboxRelay}
+ * sends it afterwards, in the publish format.
+ */
+public class OutboxPublisher {
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventMessageConverter messageConverter;
+
+    public OutboxPublisher(OutboxEventRepository outboxEventRepository, EventMessageConverter messageConverter) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.messageConverter = messageConverter;
+    }
+
+    @Transactional
+    public void publish(String exchange, String routingKey, Object payload) {
+        Message message = messageConverter.toJsonMessage(payload);
+        Object typeId = message.getMessageProperties().getHeaders().get(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+        outboxEventRepository.save(OutboxEvent.builder()
+                .exchange(exchange)
+                .routingKey(routingKey)
+                .messageId(UUID.randomUUID().toString())
+                .typeId(typeId != null ? typeId.toString() : null)
+                .payload(new String(message.getBody(), StandardCharsets.UTF_8))
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+}
@@ -0,0 +1,117 @@
+package com.classmate.messaging.outbox;
+
+import com.classmate.messaging.config.EventMessageConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends the outbox to RabbitMQ every {@code outbox.relay.poll-interval-ms}, in batches of
+ * {@code outbox.relay.batch-size}. A batch goes out on one channel with correlated confirms
+ * and is deleted only after the broker confirmed all of it, in the transaction that locked the
+ * rows; on failure the rows stay for the next poll, so delivery is at-least-once. SKIP LOCKED
+ * lets every instance relay.
+ */
+public class OutboxRelay {
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final EventMessageConverter messageConverter;
+    private final TransactionTemplate transactionTemplate;
+    private final Logger LOGGER = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Value("${outbox.relay.batch-size:100}")
+    private int batchSize;
+    @Value("${outbox.relay.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, RabbitTemplate rabbitTemplate,
+                       EventMessageConverter messageConverter, TransactionTemplate transactionTemplate) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.messageConverter = messageConverter;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:500}")
+    public void relay() {
+        try {
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed != null && relayed == batchSize);
+        } catch (Exception e) {
+            LOGGER.error("Could not relay outbox events, retrying on the next poll", e);
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findBatchForRelay(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<CorrelationData> confirms = new ArrayList<>(batch.size());
+        // One channel keeps the batch in order, the confirms are awaited together afterwards
+        rabbitTemplate.invoke(operations -> {
+            for (OutboxEvent event : batch) {
+                CorrelationData correlationData = new CorrelationData(event.getId().toString());
+                operations.send(event.getExchange(), event.getRoutingKey(), toMessage(event), correlationData);
+                confirms.add(correlationData);
+            }
+            return null;
+        });
+        awaitConfirms(confirms);
+        outboxEventRepository.deleteAllByIdInBatch(batch.stream().map(OutboxEvent::getId).toList());
+        return batch.size();
+    }
+
+    private void awaitConfirms(List<CorrelationData> confirms) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMs);
+        for (CorrelationData correlationData : confirms) {
+            CorrelationData.Confirm confirm;
+            try {
+                confirm = correlationData.getFuture().get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AmqpException("Interrupted while waiting for outbox confirms", e);
+            } catch (ExecutionException | TimeoutException e) {
+                throw new AmqpException(String.format("No confirm for outbox event %s", correlationData.getId()), e);
+            }
+            if (!confirm.isAck()) {
+                throw new AmqpException(String.format("Outbox event %s was not confirmed: %s", correlationData.getId(), confirm.getReason()));
+            }
+        }
+    }
+
+    private Message toMessage(OutboxEvent event) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(messageConverter.getPublishContentType());
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        // Rows stored before events had ids get a fresh one from the template
+        properties.setMessageId(event.getMessageId());
+        // Consumer lag then includes the time spent in the outbox
+        properties.setTimestamp(Date.from(event.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant()));
+        if (event.getTypeId() != null) {
+            properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, event.getTypeId());
+        }
+        return new Message(messageConverter.encodeStoredJson(event.getPayload()), properties);
+    }
+}
@@ -3,10 +3,12 @@ package com.classmate.comment_service;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 /**
  * Main application class for the Comment Service.
  */
 @EnableFeignClients
+@EnableScheduling
 @SpringBootApplication
 public class CommentServiceApplication {
 
@@ -1,6 +1,7 @@
 package com.classmate.comment_service.client;
 
 
+import com.classmate.comment_service.dto.PostSummaryDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -9,7 +10,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 @FeignClient(name = "post-service")
 public interface IPostClient {
 
-    @GetMapping("/api/posts/{postId}/forumId")
-    Long getPostForumId(@PathVariable Long postId);
+    @GetMapping("/api/posts/{postId}/summary")
+    PostSummaryDTO getPostSummary(@PathVariable Long postId);
 }
 
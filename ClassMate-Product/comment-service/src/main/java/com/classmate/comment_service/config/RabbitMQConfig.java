@@ -4,10 +4,6 @@ import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.TopicExchange;
-import org.springframework.amqp.rabbit.connection.ConnectionFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
-import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -61,20 +57,6 @@ public class RabbitMQConfig {
     @Value("${rabbitmq.notifications.milestone.routing-key}")
     private String milestoneNotificationRoutingKey;
 
-    // Get forum ID
-    @Value("${rabbitmq.file-exchange.get.forum.id}")
-    private String getForumIdExchange;
-    @Value("${rabbitmq.queue.notifications.get.forum.id-queue}")
-    private String getForumIdNotificationQueue;
-    @Value("${rabbitmq.notifications.get.forum.id.routing-key}")
-    private String getForumIdNotificationRoutingKey;
-
-    // Get forum ID for notifications RESPONSE
-    @Value("${rabbitmq.queue.notifications.get.forum.id.response-queue}")
-    private String getForumIdNotificationQueueResponse;
-    @Value("${rabbitmq.notifications.get.forum.id.response.routing-key}")
-    private String getForumIdNotificationRoutingKeyResponse;
-
     // Comment Count Event
     //QUEUE
     @Value("${rabbitmq.queue.comment-count-event-queue}")
@@ -112,18 +94,6 @@ public class RabbitMQConfig {
         return new Queue(milestoneNotificationQueue, true);
     }
 
-    // GET FORUM ID NOTIFICATIONS
-    @Bean
-    public Queue getForumIdNotificationQueue() {
-        return new Queue(getForumIdNotificationQueue, true);
-    }
-
-    // Get forum ID for notifications RESPONSE
-    @Bean
-    public Queue getForumIdNotificationResponseQueue() {
-        return new Queue(getForumIdNotificationQueueResponse, true);
-    }
-
     // Comment Count Queue
     @Bean
     public Queue getCommentCountEventQueue() {
@@ -145,12 +115,6 @@ public class RabbitMQConfig {
         return new TopicExchange(fileExchange);
     }
 
-    // GET FORUM ID NOTIFICATIONS EXCHANGE
-    @Bean
-    public TopicExchange getForumIdExchange() {
-        return new TopicExchange(getForumIdExchange);
-    }
-
     // Comment Count Exchange
     @Bean
     public TopicExchange getCommentCountExchange(){
@@ -218,24 +182,6 @@ public class RabbitMQConfig {
                 .with(milestoneNotificationRoutingKey);
     }
 
-    // GET FORUM ID NOTIFICATIONS
-    @Bean
-    public Binding getForumIdNotificationBinding() {
-        return BindingBuilder
-                .bind(getForumIdNotificationQueue())
-                .to(getForumIdExchange())
-                .with(getForumIdNotificationRoutingKey);
-    }
-
-    // Get forum ID for notifications RESPONSE
-    @Bean
-    public Binding getForumIdNotificationResponseBinding() {
-        return BindingBuilder
-                .bind(getForumIdNotificationResponseQueue())
-                .to(getForumIdExchange())
-                .with(getForumIdNotificationRoutingKeyResponse);
-    }
-
     // Comment Count Binding
     @Bean
     public Binding getCommentCountEventBinding() {
@@ -244,17 +190,5 @@ public class RabbitMQConfig {
                 .to(getCommentCountExchange())
                 .with(commentCountEventRoutingKey);
     }
-
-    @Bean
-    public MessageConverter converter() {
-        return new Jackson2JsonMessageConverter();
-    }
-
-    @Bean
-    public RabbitTemplate amqpTemplate(ConnectionFactory connectionFactory) {
-        RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(converter());
-        return rabbitTemplate;
-    }
 }
 
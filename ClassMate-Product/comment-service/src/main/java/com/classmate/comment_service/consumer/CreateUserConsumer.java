@@ -3,21 +3,31 @@ package com.classmate.comment_service.consumer;
 import com.classmate.comment_service.dto.user.UserDTO;
 import com.classmate.comment_service.entity.User;
 import com.classmate.comment_service.repository.IUserRepository;
+import com.classmate.messaging.dedup.MessageDeduplicator;
+import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
 @Service
 @Slf4j
 public class CreateUserConsumer {
     private final IUserRepository userRepository;
+    private final MessageDeduplicator messageDeduplicator;
 
-    public CreateUserConsumer(IUserRepository userRepository) {
+    public CreateUserConsumer(IUserRepository userRepository, MessageDeduplicator messageDeduplicator) {
         this.userRepository = userRepository;
+        this.messageDeduplicator = messageDeduplicator;
     }
 
+    @Transactional
     @RabbitListener(queues = "${rabbitmq.queue.create-user-comment-service-queue}")
-    public void createUser(UserDTO userDTO){
+    public void createUser(UserDTO userDTO, @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId){
+        if (!messageDeduplicator.firstDelivery(messageId)) {
+            return;
+        }
         User newUser = User.builder()
                 .userId(userDTO.getUserId())
                 .nickname(userDTO.getNickname())
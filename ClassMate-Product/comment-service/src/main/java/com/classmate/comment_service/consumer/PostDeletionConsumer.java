@@ -2,8 +2,6 @@ package com.classmate.comment_service.consumer;
 
 import com.classmate.comment_service.dto.PostDeletionDTO;
 import com.classmate.comment_service.dto.CommentDeletionDTO;
-import com.classmate.comment_service.entity.Attachment;
-import com.classmate.comment_service.entity.Comment;
 import com.classmate.comment_service.publisher.CommentPublisher;
 import com.classmate.comment_service.repository.ICommentRepository;
 import jakarta.transaction.Transactional;
@@ -11,13 +9,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
+/**
+ * Deletes the comments of deleted posts with set-based statements, without loading them.
+ * Deletion events are consumed in batches (see the deletePostQueue listener policy), and
+ * every post of a batch is handled by the same handful of statements and one file deletion
+ * event. Deleting is idempotent, so redelivered events need no deduplication.
+ */
 @Service
 @Slf4j
 public class PostDeletionConsumer {
@@ -33,29 +37,41 @@ public class PostDeletionConsumer {
     }
 
     @Transactional
-    @RabbitListener(queues = "${rabbitmq.queue.delete-post-queue}")
-    public void deleteCommentsByPostId(PostDeletionDTO postDeletionDTO) {
-        Long postId = postDeletionDTO.getPostId();
-        int batchSize = 100;
-        Pageable pageable = PageRequest.of(0, batchSize);
-        Page<Comment> commentsPage;
-
-        do {
-            commentsPage = commentRepository.findByPostId(postId, pageable);
-            List<Comment> comments = commentsPage.getContent();
-
-            for (Comment comment : comments) {
-                List<Long> attachmentIds = comment.getAttachments().stream()
-                        .map(Attachment::getId)
-                        .toList();
-                CommentDeletionDTO event = new CommentDeletionDTO(attachmentIds);
-                commentPublisher.publishCommentDeleteEvent(event);
+    @RabbitListener(queues = "${rabbitmq.queue.delete-post-queue}", batch = "true")
+    public void deleteCommentsByPostIds(List<PostDeletionDTO> postDeletionDTOs) {
+        Set<Long> postIds = new TreeSet<>();
+        for (PostDeletionDTO postDeletionDTO : postDeletionDTOs) {
+            if (postDeletionDTO.getPostIds() != null) {
+                postIds.addAll(postDeletionDTO.getPostIds());
+            } else if (postDeletionDTO.getPostId() != null) {
+                postIds.add(postDeletionDTO.getPostId());
             }
+        }
+        if (postIds.isEmpty()) {
+            return;
+        }
 
-            commentRepository.deleteAll(commentsPage.getContent());
-            pageable = commentsPage.nextPageable(); // Moves to the next page
-        } while (commentsPage.hasNext());
+        int deletedComments = deleteComments(postIds);
+        LOGGER.info(String.format("%d comments for %d posts deleted.", deletedComments, postIds.size()));
+    }
+
+    /**
+     * Deletes the comments of the given posts with their attachments and votes, and publishes
+     * one deletion event for all of the attachment files.
+     *
+     * @param postIds the IDs of the posts
+     * @return the number of comments deleted
+     */
+    private int deleteComments(Collection<Long> postIds) {
+        List<Long> attachmentIds = commentRepository.findAttachmentIdsByPostIds(postIds);
+        if (!attachmentIds.isEmpty()) {
+            commentPublisher.publishCommentDeleteEvent(new CommentDeletionDTO(attachmentIds));
+        }
 
-        LOGGER.info(String.format("Comments for post %d deleted.", postId));
+        // Bulk deletes skip the entity cascades, so the collections go first
+        commentRepository.deleteAttachmentsByPostIds(postIds);
+        commentRepository.deleteUpvotesByPostIds(postIds);
+        commentRepository.deleteDownvotesByPostIds(postIds);
+        return commentRepository.deleteByPostIds(postIds);
     }
 }
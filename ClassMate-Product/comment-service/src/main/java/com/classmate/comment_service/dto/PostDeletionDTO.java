@@ -5,10 +5,14 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.util.List;
+
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class PostDeletionDTO {
     private Long postId;
+    // Set instead of postId when post-service deletes a whole chunk of posts at once
+    private List<Long> postIds;
 }
@@ -0,0 +1,17 @@
+package com.classmate.comment_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostSummaryDTO {
+    private Long postId;
+    private Long forumId;
+    private Long authorId;
+    private String title;
+}
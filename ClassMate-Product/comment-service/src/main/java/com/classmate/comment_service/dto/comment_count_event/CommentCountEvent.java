@@ -10,6 +10,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Builder
 public class CommentCountEvent {
-    private Long commentCount;
     private Long postId;
+    // Comments added to the post, -1 when one is deleted
+    private Long delta;
 }
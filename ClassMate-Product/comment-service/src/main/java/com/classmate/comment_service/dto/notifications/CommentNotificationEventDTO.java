@@ -24,4 +24,19 @@ public class CommentNotificationEventDTO {
      * The ID of the user who authored the comment (optional).
      */
     private Long commentAuthorId;
+
+    /**
+     * The ID of the post author, who receives the notification.
+     */
+    private Long postAuthorId;
+
+    /**
+     * The ID of the forum the post belongs to.
+     */
+    private Long forumId;
+
+    /**
+     * The title of the post.
+     */
+    private String title;
 }
@@ -18,7 +18,7 @@ import java.util.stream.Collectors;
 @AllArgsConstructor
 @Entity
 @Data
-@Table(name = "comments")
+@Table(name = "comments", indexes = @Index(name = "idx_comments_post_id", columnList = "postId"))
 public class Comment {
 
     /**
@@ -4,16 +4,15 @@ import com.classmate.comment_service.dto.CommentDeletionDTO;
 import com.classmate.comment_service.dto.comment_count_event.CommentCountEvent;
 import com.classmate.comment_service.dto.filedtos.FileDeletionDTO;
 import com.classmate.comment_service.dto.notifications.CommentNotificationEventDTO;
-import com.classmate.comment_service.dto.notifications.GetForumIdNotificationDTORequest;
 import com.classmate.comment_service.dto.notifications.MilestoneReachedEventDTO;
+import com.classmate.messaging.outbox.OutboxPublisher;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 public class CommentPublisher {
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxPublisher outboxPublisher;
 
     @Value("${rabbitmq.file-exchange.name}")
     private String exchange;
@@ -34,12 +33,6 @@ public class CommentPublisher {
     @Value("${rabbitmq.notifications.milestone.routing-key}")
     private String milestoneNotificationRoutingKey;
 
-    // GET FORUM ID NOTIFICATIONS
-    @Value("${rabbitmq.file-exchange.get.forum.id}")
-    private String getForumIdExchange;
-    @Value("${rabbitmq.notifications.get.forum.id.routing-key}")
-    private String getForumIdNotificationRoutingKey;
-
     // Comment Count Event
     //QUEUE
     @Value("${rabbitmq.queue.comment-count-event-queue}")
@@ -51,41 +44,34 @@ public class CommentPublisher {
     @Value("${rabbitmq.comment-count-event.routing-key}")
     private String commentCountEventRoutingKey;
 
-    public CommentPublisher(RabbitTemplate rabbitTemplate) {
-        this.rabbitTemplate = rabbitTemplate;
+    public CommentPublisher(OutboxPublisher outboxPublisher) {
+        this.outboxPublisher = outboxPublisher;
     }
 
     public void publishFileDeleteEvent(FileDeletionDTO event) {
-        rabbitTemplate.convertAndSend(exchange, deleteFileRoutingKey, event);
+        outboxPublisher.publish(exchange, deleteFileRoutingKey, event);
     }
 
     public void publishCommentDeleteEvent(CommentDeletionDTO event) {
-        rabbitTemplate.convertAndSend(exchange, deleteCommentRoutingKey, event);
+        outboxPublisher.publish(exchange, deleteCommentRoutingKey, event);
     }
 
     // COMMENT NOTIFICATIONS
     public void publishCommentNotificationEvent(CommentNotificationEventDTO event) {
-        rabbitTemplate.convertAndSend(notificationsExchange, commentNotificationRoutingKey, event);
+        outboxPublisher.publish(notificationsExchange, commentNotificationRoutingKey, event);
     }
 
     // VALORATIONS
     public void publishMilestoneReachedEvent(MilestoneReachedEventDTO event) {
-        rabbitTemplate.convertAndSend(notificationsExchange, milestoneNotificationRoutingKey, event);
-    }
-
-    // GET FORUM ID NOTIFICATIONS
-    public void publishGetForumIdNotificationEvent(GetForumIdNotificationDTORequest event) {
-        rabbitTemplate.convertAndSend(getForumIdExchange, getForumIdNotificationRoutingKey, event);
+        outboxPublisher.publish(notificationsExchange, milestoneNotificationRoutingKey, event);
     }
 
     // COMMENT COUNT EVENT
-    public void publishCommentCountEvent(Long commentCount, Long postId){
+    public void publishCommentCountEvent(Long postId, long delta){
         CommentCountEvent commentCountEvent = CommentCountEvent.builder()
-                .commentCount(commentCount)
                 .postId(postId)
+                .delta(delta)
                 .build();
-        System.out.println(commentCount);
-        System.out.println(postId);
-        rabbitTemplate.convertAndSend(commentCountEventExchange, commentCountEventRoutingKey, commentCountEvent);
+        outboxPublisher.publish(commentCountEventExchange, commentCountEventRoutingKey, commentCountEvent);
     }
 }
@@ -4,6 +4,12 @@ import com.classmate.comment_service.entity.Comment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Repository interface for managing Comment entities.
@@ -19,4 +25,30 @@ public interface ICommentRepository extends JpaRepository<Comment, Long> {
      */
     Page<Comment> findByPostId(Long postId, Pageable pageable);
     long countByPostId(Long postId);
+
+    @Query("SELECT a.id FROM Comment c JOIN c.attachments a WHERE c.postId IN :postIds")
+    List<Long> findAttachmentIdsByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM attachments WHERE comment_id IN (SELECT id FROM comments WHERE post_id IN (:postIds))", nativeQuery = true)
+    int deleteAttachmentsByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM comment_upvotes_by_user_id WHERE comment_id IN (SELECT id FROM comments WHERE post_id IN (:postIds))", nativeQuery = true)
+    int deleteUpvotesByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM comment_downvotes_by_user_id WHERE comment_id IN (SELECT id FROM comments WHERE post_id IN (:postIds))", nativeQuery = true)
+    int deleteDownvotesByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    /**
+     * Deletes the comments of the given posts in one statement. Attachments and votes are
+     * not cascaded, delete them first.
+     *
+     * @param postIds the IDs of the posts
+     * @return the number of comments deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.postId IN :postIds")
+    int deleteByPostIds(@Param("postIds") Collection<Long> postIds);
 }
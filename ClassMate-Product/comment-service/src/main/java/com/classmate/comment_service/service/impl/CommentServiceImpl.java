@@ -6,6 +6,7 @@ import com.classmate.comment_service.dto.CommentDTORequest;
 import com.classmate.comment_service.dto.CommentDTOResponse;
 import com.classmate.comment_service.dto.CommentUpdateDTO;
 import com.classmate.comment_service.dto.CommentDeletionDTO;
+import com.classmate.comment_service.dto.PostSummaryDTO;
 import com.classmate.comment_service.dto.filedtos.FileDeletionDTO;
 import com.classmate.comment_service.dto.notifications.CommentNotificationEventDTO;
 import com.classmate.comment_service.dto.user.UserDTO;
@@ -109,10 +110,10 @@ public class CommentServiceImpl implements ICommentService {
             throw e;  // Re-throw the exception or handle it appropriately
         }
 
-        // Get forumId via Openfeign call
-        Long commentForumId = postClient.getPostForumId(comment.getPostId());
-        LOGGER.info("Comment forumId: {}", commentForumId);
-        comment.setForumId(commentForumId);
+        // Get forumId, post author and title via Openfeign call
+        PostSummaryDTO postSummary = postClient.getPostSummary(comment.getPostId());
+        LOGGER.info("Comment forumId: {}", postSummary.getForumId());
+        comment.setForumId(postSummary.getForumId());
 
         Comment savedComment = commentRepository.save(comment);
 
@@ -122,16 +123,18 @@ public class CommentServiceImpl implements ICommentService {
         commentDTOResponse.setValoration(1);
         commentDTOResponse.setAuthor(userMapper.mapUserToUserDTO(savedComment.getAuthor()));
 
-        // Publish notification event to notify post author
+        // Publish notification event to notify post author, carrying everything the notification needs
         CommentNotificationEventDTO commentNotificationEventDTO = new CommentNotificationEventDTO(
                 savedComment.getPostId(),
                 savedComment.getId(),
-                savedComment.getAuthor().getUserId()
+                savedComment.getAuthor().getUserId(),
+                postSummary.getAuthorId(),
+                postSummary.getForumId(),
+                postSummary.getTitle()
         );
         commentPublisher.publishCommentNotificationEvent(commentNotificationEventDTO);
 
-        Long commentCount = getCommentCountByPostId(commentRequestDTO.getPostId());
-        commentPublisher.publishCommentCountEvent(commentCount, commentRequestDTO.getPostId());
+        commentPublisher.publishCommentCountEvent(commentRequestDTO.getPostId(), 1);
 
         return commentDTOResponse;
     }
@@ -179,8 +182,7 @@ public class CommentServiceImpl implements ICommentService {
         CommentDeletionDTO event = new CommentDeletionDTO(attachmentIds);
         commentPublisher.publishCommentDeleteEvent(event);
 
-        Long commentCount = commentRepository.countByPostId(comment.getPostId());
-        commentPublisher.publishCommentCountEvent(commentCount - 1, comment.getPostId());
+        commentPublisher.publishCommentCountEvent(comment.getPostId(), -1);
 
         commentRepository.delete(comment);
     }
@@ -285,8 +287,4 @@ public class CommentServiceImpl implements ICommentService {
         commentResponseDTO.setForumId(comment.getForumId());
         return commentResponseDTO;
     }
-
-    private Long getCommentCountByPostId(Long postId){
-        return commentRepository.countByPostId(postId);
-    }
 }
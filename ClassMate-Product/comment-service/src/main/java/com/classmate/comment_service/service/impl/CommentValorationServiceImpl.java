@@ -1,6 +1,5 @@
 package com.classmate.comment_service.service.impl;
 
-import com.classmate.comment_service.dto.notifications.GetForumIdNotificationDTORequest;
 import com.classmate.comment_service.dto.notifications.MilestoneReachedEventDTO;
 import com.classmate.comment_service.entity.Comment;
 import com.classmate.comment_service.exception.CommentNotFoundException;
@@ -77,10 +76,18 @@ public class CommentValorationServiceImpl implements ICommentValorationService {
     }
 
     private void publishMilestoneReachedEvent(Comment comment, int milestone) {
-        // Publish event to receive forumId
-        GetForumIdNotificationDTORequest getForumIdEvent = new GetForumIdNotificationDTORequest(comment.getId(), comment.getPostId());
-        commentPublisher.publishGetForumIdNotificationEvent(getForumIdEvent);
-
-        LOGGER.info("Published request to get forumId for comment's postId -> {}", comment.getPostId());
+        // Everything the notification needs is stored on the comment, forumId included
+        MilestoneReachedEventDTO event = MilestoneReachedEventDTO.builder()
+                .postId(comment.getPostId())
+                .authorId(comment.getAuthor().getUserId())
+                .forumId(comment.getForumId())
+                .milestone(milestone)
+                .milestoneType("COMMENT")
+                .build();
+
+        LOGGER.info("Publishing milestone reached event for comment with id -> {}", comment.getId());
+
+        // Publish the event to the notifications service
+        commentPublisher.publishMilestoneReachedEvent(event);
     }
 }
@@ -0,0 +1,79 @@
+package com.classmate.comment_service;
+
+import com.classmate.comment_service.dto.notifications.MilestoneReachedEventDTO;
+import com.classmate.comment_service.entity.Comment;
+import com.classmate.comment_service.entity.User;
+import com.classmate.comment_service.publisher.CommentPublisher;
+import com.classmate.comment_service.repository.ICommentRepository;
+import com.classmate.comment_service.service.impl.CommentValorationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the milestone notifications of CommentValorationServiceImpl.
+ */
+public class CommentValorationServiceImplTest {
+    private static final Long COMMENT_ID = 1204877L;
+    private static final Long AUTHOR_ID = 9031L;
+    private static final Long VOTER_ID = 5120L;
+
+    @Mock
+    private ICommentRepository commentRepository;
+
+    @Mock
+    private CommentPublisher commentPublisher;
+
+    @InjectMocks
+    private CommentValorationServiceImpl valorationService;
+
+    private Comment comment;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Only the author's upvote, one short of the first milestone
+        comment = new Comment();
+        comment.setId(COMMENT_ID);
+        comment.setPostId(48213L);
+        comment.setForumId(77L);
+        comment.setAuthor(User.builder().userId(AUTHOR_ID).nickname("author").build());
+        comment.setUpvotesByUserId(new ArrayList<>(List.of(AUTHOR_ID)));
+        when(commentRepository.findById(COMMENT_ID)).thenReturn(Optional.of(comment));
+    }
+
+    /**
+     * The event is built from the comment and published by the upvote itself, without asking post-service for the forum.
+     */
+    @Test
+    public void testUpvoteCrossingMilestonePublishesEventWithForumId() {
+        valorationService.upvoteComment(COMMENT_ID, VOTER_ID);
+
+        ArgumentCaptor<MilestoneReachedEventDTO> event = ArgumentCaptor.forClass(MilestoneReachedEventDTO.class);
+        verify(commentPublisher, times(1)).publishMilestoneReachedEvent(event.capture());
+        assertEquals(77L, event.getValue().getForumId());
+        assertEquals(48213L, event.getValue().getPostId());
+        assertEquals(AUTHOR_ID, event.getValue().getAuthorId());
+        assertEquals(2, event.getValue().getMilestone());
+        assertEquals("COMMENT", event.getValue().getMilestoneType());
+        assertEquals(2, comment.getLastMilestone());
+    }
+
+    @Test
+    public void testUpvoteBelowNextMilestonePublishesNothing() {
+        valorationService.upvoteComment(COMMENT_ID, VOTER_ID);
+        valorationService.upvoteComment(COMMENT_ID, 5121L);
+
+        verify(commentPublisher, times(1)).publishMilestoneReachedEvent(any());
+    }
+}
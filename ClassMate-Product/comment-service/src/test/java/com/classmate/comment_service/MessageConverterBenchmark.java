@@ -0,0 +1,103 @@
+package com.classmate.comment_service;
+
+import com.classmate.comment_service.dto.comment_count_event.CommentCountEvent;
+import com.classmate.comment_service.dto.notifications.CommentNotificationEventDTO;
+import com.classmate.comment_service.dto.notifications.MilestoneReachedEventDTO;
+import com.classmate.messaging.config.EventMessageConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of the events published by this service, as JSON and as CBOR.
+ * Not part of the test suite; run it with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.classmate.comment_service.MessageConverterBenchmark}.
+ * The body and type header sizes of each event are logged when its trial starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageConverterBenchmark {
+    @Param({"commentCount", "milestoneReached", "commentNotification"})
+    private String event;
+    @Param({MessageProperties.CONTENT_TYPE_JSON, "application/cbor"})
+    private String contentType;
+
+    private EventMessageConverter converter;
+    private Object payload;
+    private Message message;
+    private final Logger LOGGER = LoggerFactory.getLogger(MessageConverterBenchmark.class);
+
+    @Setup
+    public void setUp() {
+        converter = new EventMessageConverter(contentType);
+        payload = payload(event);
+        message = encode();
+        int typeHeaderSize = String.valueOf(message.getMessageProperties().getHeaders().get("__TypeId__")).length();
+        LOGGER.info(String.format("%s as %s: body %d bytes, type header %d bytes",
+                event, contentType, message.getBody().length, typeHeaderSize));
+        // Listeners convert to the declared parameter type
+        message.getMessageProperties().setInferredArgumentType(payload.getClass());
+    }
+
+    @Benchmark
+    public Message encode() {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(contentType);
+        return converter.toMessage(payload, properties);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return converter.fromMessage(message);
+    }
+
+    private static Object payload(String event) {
+        switch (event) {
+            case "commentCount":
+                return CommentCountEvent.builder().postId(48213L).delta(1L).build();
+            case "milestoneReached":
+                return MilestoneReachedEventDTO.builder()
+                        .postId(48213L)
+                        .authorId(9031L)
+                        .forumId(77L)
+                        .milestone(100)
+                        .title("How do I prepare for the linear algebra final?")
+                        .milestoneType("COMMENT")
+                        .build();
+            case "commentNotification":
+                return new CommentNotificationEventDTO(48213L, 1204877L, 5120L, 9031L, 77L,
+                        "How do I prepare for the linear algebra final?");
+            default:
+                throw new IllegalArgumentException(String.format("Unknown event: %s", event));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MessageConverterBenchmark.class.getSimpleName())
+                // exec:java puts the test classpath in a class loader a forked JVM would not see
+                .forks(0)
+                .build()).run();
+    }
+}
@@ -0,0 +1,124 @@
+package com.classmate.comment_service;
+
+import com.classmate.comment_service.entity.Comment;
+import com.classmate.comment_service.entity.User;
+import com.classmate.comment_service.publisher.CommentPublisher;
+import com.classmate.comment_service.repository.ICommentRepository;
+import com.classmate.comment_service.service.impl.CommentValorationServiceImpl;
+import com.classmate.messaging.config.EventMessageConverter;
+import com.classmate.messaging.outbox.OutboxPublisher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from an upvote that crosses a comment milestone to its MilestoneReachedEventDTO reaching
+ * the outbox. The event used to wait for a getForumId round trip through post-service (two
+ * broker hops, a post lookup and a comment reload); it is now built from the comment itself, so
+ * end to end it only adds the outbox relay and one hop to notification-service. That the event
+ * is published synchronously with its forumId is checked by CommentValorationServiceImplTest.
+ * <p>
+ * An upvote only crosses a milestone once per comment, so each iteration gets a fresh set of
+ * comments one vote short of the first milestone and upvotes every one of them in a single
+ * timed call; the score is per upvote. The repository is a plain stub, not a mock, so its cost
+ * stays out of the number.
+ * Not part of the test suite; run it with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.classmate.comment_service.MilestoneLatencyBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+public class MilestoneLatencyBenchmark {
+    private static final int UPVOTES_PER_ITERATION = 10000;
+    private static final Long COMMENT_ID = 1204877L;
+    private static final Long AUTHOR_ID = 9031L;
+    private static final Long VOTER_ID = 5120L;
+
+    private Comment[] comments;
+    private Comment current;
+    private CapturingOutboxPublisher outboxPublisher;
+    private CommentValorationServiceImpl valorationService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ICommentRepository commentRepository = (ICommentRepository) Proxy.newProxyInstance(
+                ICommentRepository.class.getClassLoader(),
+                new Class<?>[]{ICommentRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.of(current);
+                    case "save" -> args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        outboxPublisher = new CapturingOutboxPublisher();
+        valorationService = new CommentValorationServiceImpl(commentRepository, new CommentPublisher(outboxPublisher));
+    }
+
+    // Comments carrying only their author's upvote, one short of the first milestone
+    @Setup(Level.Iteration)
+    public void newComments() {
+        comments = new Comment[UPVOTES_PER_ITERATION];
+        for (int i = 0; i < comments.length; i++) {
+            Comment comment = new Comment();
+            comment.setId(COMMENT_ID);
+            comment.setPostId(48213L);
+            comment.setForumId(77L);
+            comment.setAuthor(User.builder().userId(AUTHOR_ID).nickname("author").build());
+            comment.setUpvotesByUserId(new ArrayList<>(List.of(AUTHOR_ID)));
+            comments[i] = comment;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(UPVOTES_PER_ITERATION)
+    public void upvoteToMilestoneEvent(Blackhole blackhole) {
+        for (Comment comment : comments) {
+            current = comment;
+            valorationService.upvoteComment(COMMENT_ID, VOTER_ID);
+            blackhole.consume(outboxPublisher.published);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MilestoneLatencyBenchmark.class.getSimpleName())
+                // exec:java puts the test classpath in a class loader a forked JVM would not see
+                .forks(0)
+                .build()).run();
+    }
+
+    private static class CapturingOutboxPublisher extends OutboxPublisher {
+        private Object published;
+
+        CapturingOutboxPublisher() {
+            super(null, new EventMessageConverter(MessageProperties.CONTENT_TYPE_JSON));
+        }
+
+        @Override
+        public void publish(String exchange, String routingKey, Object payload) {
+            published = payload;
+        }
+    }
+}
@@ -3,12 +3,14 @@ package com.classmate.forum_service;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main class for the Forum Service application.
  * This class bootstraps the Spring Boot application and enables Feign clients for inter-service communication.
  */
 @EnableFeignClients
+@EnableScheduling
 @SpringBootApplication
 public class ForumServiceApplication {
 
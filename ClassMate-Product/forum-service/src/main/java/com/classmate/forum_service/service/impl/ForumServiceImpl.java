@@ -19,6 +19,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -143,6 +144,7 @@ public class ForumServiceImpl implements IForumService {
      * {@inheritDoc}
      */
     @Override
+    @Transactional
     public ForumResponseDTO saveForum(ForumRequestDTO forumRequestDTO, Long creatorId) {
         validateForum(forumRequestDTO);
         LOGGER.info("Saving forum...");
@@ -186,6 +188,7 @@ public class ForumServiceImpl implements IForumService {
      * {@inheritDoc}
      */
     @Override
+    @Transactional
     public void deleteForum(Long id, Long userId) {
         LOGGER.info("Deleting forum by id...");
         Forum forum = forumRepository.findById(id)
@@ -205,6 +208,7 @@ public class ForumServiceImpl implements IForumService {
      * {@inheritDoc}
      */
     @Override
+    @Transactional
     public void addMember(Long forumId, Long memberId) {
         Forum forum = forumRepository.findById(forumId)
                 .orElseThrow(() -> new ForumNotFoundException("Forum not found with id: " + forumId));
@@ -219,8 +223,8 @@ public class ForumServiceImpl implements IForumService {
                     .forumId(forumId)
                     .userId(memberId)
                     .build();
-            subscriptionPublisher.publishSubscription(forumSubscriptionDTO);
             forumRepository.save(forum);
+            subscriptionPublisher.publishSubscription(forumSubscriptionDTO);
         } catch (IllegalArgumentException e) {
             LOGGER.error(e.getMessage());
         }
@@ -230,6 +234,7 @@ public class ForumServiceImpl implements IForumService {
      * {@inheritDoc}
      */
     @Override
+    @Transactional
     public void addAdmin(Long forumId, Long adminId) {
         Forum forum = forumRepository.findById(forumId)
                 .orElseThrow(() -> new ForumNotFoundException("Forum not found with id: " + forumId));
@@ -239,8 +244,8 @@ public class ForumServiceImpl implements IForumService {
                     .forumId(forumId)
                     .userId(adminId)
                     .build();
-            subscriptionPublisher.publishAddAdmin(adminDTO);
             forumRepository.save(forum);
+            subscriptionPublisher.publishAddAdmin(adminDTO);
         } catch (IllegalArgumentException e) {
             LOGGER.error(e.getMessage());
         }
@@ -250,6 +255,7 @@ public class ForumServiceImpl implements IForumService {
      * {@inheritDoc}
      */
     @Override
+    @Transactional
     public void removeMember(Long forumId, Long memberId) {
         Forum forum = forumRepository.findById(forumId)
                 .orElseThrow(() -> new ForumNotFoundException("Forum not found with id: " + forumId));
@@ -259,8 +265,8 @@ public class ForumServiceImpl implements IForumService {
                     .forumId(forumId)
                     .userId(memberId)
                     .build();
-            subscriptionPublisher.publishRemoveMember(memberDTO);
             forumRepository.save(forum);
+            subscriptionPublisher.publishRemoveMember(memberDTO);
         } catch (IllegalArgumentException e) {
             LOGGER.error(e.getMessage());
         }
@@ -270,6 +276,7 @@ public class ForumServiceImpl implements IForumService {
      * {@inheritDoc}
      */
     @Override
+    @Transactional
     public void removeAdmin(Long forumId, Long adminId) {
         Forum forum = forumRepository.findById(forumId)
                 .orElseThrow(() -> new ForumNotFoundException("Forum not found with id: " + forumId));
@@ -279,14 +286,15 @@ public class ForumServiceImpl implements IForumService {
                     .forumId(forumId)
                     .userId(adminId)
                     .build();
-            subscriptionPublisher.publishRemoveAdmin(adminDTO);
             forumRepository.save(forum);
+            subscriptionPublisher.publishRemoveAdmin(adminDTO);
         } catch (IllegalArgumentException e) {
             LOGGER.error(e.getMessage());
         }
     }
 
     @Override
+    @Transactional
     public void banUser(Long forumId, Long bannerId, Long bannedId) {
         LOGGER.info("Banning user");
         // Get the forum
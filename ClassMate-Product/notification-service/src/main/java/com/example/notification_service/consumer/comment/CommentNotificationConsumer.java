@@ -2,7 +2,10 @@ package com.example.notification_service.consumer.comment;
 
 import com.example.notification_service.dto.publisherAndConsumerDTOS.comment.CommentNotificationEventDTO;
 import com.example.notification_service.dto.publisherAndConsumerDTOS.comment.PostAuthorRequestEventDTO;
+import com.example.notification_service.entity.notification.CommentNotification;
 import com.example.notification_service.publisher.NotificationPublisher;
+import com.example.notification_service.service.NotificationDispatcher;
+import com.example.notification_service.service.NotificationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -11,18 +14,40 @@ import org.springframework.stereotype.Service;
 @Service
 public class CommentNotificationConsumer {
     private final NotificationPublisher notificationPublisher;
+    private final NotificationService notificationService;
+    private final NotificationDispatcher notificationDispatcher;
     private final Logger LOGGER = LoggerFactory.getLogger(CommentNotificationConsumer.class);
 
-    public CommentNotificationConsumer(NotificationPublisher notificationPublisher) {
+    public CommentNotificationConsumer(NotificationPublisher notificationPublisher,
+                                       NotificationService notificationService,
+                                       NotificationDispatcher notificationDispatcher) {
         this.notificationPublisher = notificationPublisher;
+        this.notificationService = notificationService;
+        this.notificationDispatcher = notificationDispatcher;
     }
 
     @RabbitListener(queues = "${rabbitmq.queue.notifications.comment-queue}")
     public void handleCommentNotification(CommentNotificationEventDTO event) {
+        if (event.getPostAuthorId() != null) {
+            // The event already carries the post author, forum and title, no round trip to post-service needed
+            createNotification(event);
+            return;
+        }
         PostAuthorRequestEventDTO postAuthorRequest = new PostAuthorRequestEventDTO(event.getPostId(), event.getCommentId());
         notificationPublisher.publishPostAuthorRequestEvent(postAuthorRequest);
         LOGGER.info("Requesting post author with post ID: " + postAuthorRequest.getPostId());
     }
 
-
+    private void createNotification(CommentNotificationEventDTO event) {
+        if (notificationService.canSendNotification(event.getPostAuthorId(), "COMMENT")) {
+            CommentNotification notification = new CommentNotification();
+            notification.setUserId(event.getPostAuthorId());
+            notification.setIsSeen(false);
+            notification.setPostId(event.getPostId());
+            notification.setCommentId(event.getCommentId());
+            notification.setForumId(event.getForumId());
+            notification.setTitle(event.getTitle());
+            notificationDispatcher.dispatch(notification);
+        }
+    }
 }
@@ -4,8 +4,11 @@ package com.example.notification_service.consumer.message;
 import com.example.notification_service.consumer.comment.CommentNotificationConsumer;
 import com.example.notification_service.dto.publisherAndConsumerDTOS.message.MessageNotificationEventDTO;
 import com.example.notification_service.dto.publisherAndConsumerDTOS.message.MessageSenderNameRequestDTO;
+import com.example.notification_service.entity.notification.MessageNotification;
 import com.example.notification_service.publisher.NotificationPublisher;
 import com.example.notification_service.repository.MessageNotificationRepository;
+import com.example.notification_service.service.NotificationDispatcher;
+import com.example.notification_service.service.NotificationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -15,12 +18,19 @@ import org.springframework.stereotype.Service;
 public class MessageNotificationConsumer {
     private final NotificationPublisher notificationPublisher;
     private final MessageNotificationRepository messageNotificationRepository;
+    private final NotificationService notificationService;
+    private final NotificationDispatcher notificationDispatcher;
 
     private final Logger LOGGER = LoggerFactory.getLogger(CommentNotificationConsumer.class);
 
-    public MessageNotificationConsumer(NotificationPublisher notificationPublisher, MessageNotificationRepository messageNotificationRepository) {
+    public MessageNotificationConsumer(NotificationPublisher notificationPublisher,
+                                       MessageNotificationRepository messageNotificationRepository,
+                                       NotificationService notificationService,
+                                       NotificationDispatcher notificationDispatcher) {
         this.notificationPublisher = notificationPublisher;
         this.messageNotificationRepository = messageNotificationRepository;
+        this.notificationService = notificationService;
+        this.notificationDispatcher = notificationDispatcher;
     }
 
     @RabbitListener(queues = "${rabbitmq.queue.notifications.message-queue}")
@@ -30,7 +40,10 @@ public class MessageNotificationConsumer {
                 event.getReceiverId(),
                 event.getSenderId());
 
-        if(!unreadNotificationExists) {
+        if(!unreadNotificationExists && event.getSenderName() != null) {
+            // The event already carries the sender name, no round trip to auth-service needed
+            createNotification(event);
+        } else if(!unreadNotificationExists) {
             MessageSenderNameRequestDTO messageSenderNameRequestDTO = new MessageSenderNameRequestDTO(event.getReceiverId(), event.getSenderId());
             notificationPublisher.publishMessageSenderNameRequestEvent(messageSenderNameRequestDTO);
             LOGGER.info("Requesting message sender name with user ID: " + messageSenderNameRequestDTO.getSenderId());
@@ -39,4 +52,15 @@ public class MessageNotificationConsumer {
                     event.getReceiverId(), event.getSenderId());
         }
     }
+
+    private void createNotification(MessageNotificationEventDTO event) {
+        if (notificationService.canSendNotification(event.getReceiverId(), "MESSAGE")) {
+            MessageNotification notification = new MessageNotification();
+            notification.setUserId(event.getReceiverId());
+            notification.setIsSeen(false);
+            notification.setSenderId(event.getSenderId());
+            notification.setSenderName(event.getSenderName());
+            notificationDispatcher.dispatch(notification);
+        }
+    }
 }
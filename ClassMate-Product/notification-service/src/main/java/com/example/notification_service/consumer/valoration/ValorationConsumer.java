@@ -1,27 +1,23 @@
 package com.example.notification_service.consumer.valoration;
 
-import com.example.notification_service.dto.NotificationDTO;
 import com.example.notification_service.dto.publisherAndConsumerDTOS.valoration.MilestoneReachedEventDTO;
 import com.example.notification_service.entity.notification.MilestoneNotification;
-import com.example.notification_service.repository.NotificationRepository;
+import com.example.notification_service.service.NotificationDispatcher;
 import com.example.notification_service.service.NotificationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
 @Service
 public class ValorationConsumer {
     private final NotificationService notificationService;
-    private final NotificationRepository notificationRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationDispatcher notificationDispatcher;
     private final Logger LOGGER = LoggerFactory.getLogger(ValorationConsumer.class);
 
-    public ValorationConsumer(NotificationService notificationService, NotificationRepository notificationRepository, SimpMessagingTemplate messagingTemplate) {
+    public ValorationConsumer(NotificationService notificationService, NotificationDispatcher notificationDispatcher) {
         this.notificationService = notificationService;
-        this.notificationRepository = notificationRepository;
-        this.messagingTemplate = messagingTemplate;
+        this.notificationDispatcher = notificationDispatcher;
     }
 
     @RabbitListener(queues = "${rabbitmq.queue.notifications.milestone-queue}")
@@ -39,14 +35,9 @@ public class ValorationConsumer {
             notification.setMilestoneType(event.getMilestoneType());
             notification.setIsSeen(false);
 
-            // Save to the database
-            notificationRepository.save(notification);
+            notificationDispatcher.dispatch(notification);
 
-            // Convert to DTO and send via WebSocket
-            NotificationDTO notificationDTO = notificationService.convertToDTO(notification);
-            messagingTemplate.convertAndSend("/topic/notifications/" + event.getAuthorId(), notificationDTO);
-
-            LOGGER.info("Milestone notification sent to user ID: {}", event.getAuthorId());
+            LOGGER.info("Milestone notification stored for user ID: {}", event.getAuthorId());
         }
     }
 }
@@ -1,6 +1,7 @@
 package com.example.notification_service.controller;
 
 import com.example.notification_service.dto.NotificationDTO;
+import com.example.notification_service.dto.NotificationFeedPageDTO;
 import com.example.notification_service.dto.NotificationUpdateDTO;
 import com.example.notification_service.service.NotificationService;
 import org.springframework.data.domain.Page;
@@ -34,6 +35,31 @@ public class NotificationController {
         return new ResponseEntity<>(notificationDTOS, HttpStatus.OK);
     }
 
+    // Cursor-paginated feed, newest first. Pass the returned nextCursor as "before" for older notifications
+    @GetMapping("/user/{userId}/feed")
+    public ResponseEntity<NotificationFeedPageDTO> getUserFeed(
+            @PathVariable Long userId,
+            @RequestParam(value = "before", required = false) String before,
+            @RequestParam(value = "size", defaultValue = "10") int size
+    ) {
+        NotificationFeedPageDTO feedPage = service.getUserFeed(userId, before, size);
+        return new ResponseEntity<>(feedPage, HttpStatus.OK);
+    }
+
+    // Badge count, read from the per-user counter
+    @GetMapping("/user/{userId}/unread-count")
+    public ResponseEntity<Long> getUnreadCount(@PathVariable Long userId) {
+        return new ResponseEntity<>(service.getUnreadCount(userId), HttpStatus.OK);
+    }
+
+    // Mark all notifications as seen, or only upTo (a notification id) and everything older
+    @PutMapping("/user/{userId}/seen")
+    public ResponseEntity<Long> markAsSeen(
+            @PathVariable Long userId,
+            @RequestParam(value = "upTo", required = false) Long upTo
+    ) {
+        return new ResponseEntity<>(service.markAsSeen(userId, upTo), HttpStatus.OK);
+    }
 
     // Update a notification's status (mark as seen/unseen)
     @PutMapping("/update")
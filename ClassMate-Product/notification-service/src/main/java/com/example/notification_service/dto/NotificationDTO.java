@@ -16,6 +16,7 @@ public abstract class NotificationDTO {
     private Boolean isSeen;
     private LocalDateTime creationDate;
     private String type; // To distinguish different types of notifications from the front-end
+    private Integer aggregateCount;
 
     public NotificationDTO(Long id, Long userId, Boolean isSeen, LocalDateTime creationDate, String type) {
         this.id = id;
@@ -0,0 +1,22 @@
+package com.example.notification_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationFeedPageDTO {
+    // Newest first
+    private List<NotificationDTO> notifications;
+    // Pass back as "before" to load the next (older) page; null when there is nothing older
+    private String nextCursor;
+    private boolean hasMore;
+}
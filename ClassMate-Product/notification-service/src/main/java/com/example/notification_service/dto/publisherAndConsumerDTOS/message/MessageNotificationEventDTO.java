@@ -12,4 +12,6 @@ import lombok.Setter;
 public class MessageNotificationEventDTO {
     private Long receiverId;
     private Long senderId;
+    // Resolved by chat-service; null when it does not know the sender yet
+    private String senderName;
 }
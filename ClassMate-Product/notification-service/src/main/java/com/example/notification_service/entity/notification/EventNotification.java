@@ -1,6 +1,6 @@
 package com.example.notification_service.entity.notification;
 
-import jakarta.persistence.Column;
+import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -14,16 +14,15 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@DiscriminatorValue("EVENT")
 public class EventNotification extends Notification{
 
-    @Column(nullable = false)
     private String eventTitle;
 
-    @Column(nullable = false)
     private LocalDate startDate;
 
     @Override
-    public String getType() {
-        return "EVENT";
+    public NotificationType getType() {
+        return NotificationType.EVENT;
     }
 }
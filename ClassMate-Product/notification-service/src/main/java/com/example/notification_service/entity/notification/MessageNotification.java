@@ -1,7 +1,7 @@
 package com.example.notification_service.entity.notification;
 
 
-import jakarta.persistence.Column;
+import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -13,18 +13,17 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@DiscriminatorValue("MESSAGE")
 public class MessageNotification extends Notification {
 
-    @Column(nullable = false)
     private Long senderId; // Person who sent the message
 
-    @Column(nullable = false)
     private String senderName;
 
 
     @Override
-    public String getType() {
-        return "MESSAGE";
+    public NotificationType getType() {
+        return NotificationType.MESSAGE;
     }
 
 }
@@ -1,6 +1,6 @@
 package com.example.notification_service.entity.notification;
 
-import jakarta.persistence.Column;
+import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -13,26 +13,22 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@DiscriminatorValue("MILESTONE")
 public class MilestoneNotification extends Notification {
 
-    @Column(nullable = false)
-    private int milestone;
+    private Integer milestone;
 
-    @Column(nullable = false)
     private Long postId;
 
-    @Column(nullable = false)
     private Long forumId;
 
-    @Column(nullable = true)
     private String title;
 
-    @Column(nullable = false)
     private String milestoneType; // COMMENT or POST
 
     @Override
-    public String getType() {
-        return "MILESTONE";
+    public NotificationType getType() {
+        return NotificationType.MILESTONE;
     }
 }
 
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
@@ -14,23 +15,36 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Inheritance(strategy = InheritanceType.JOINED)
-@Table(name = "notifications")
+// One table for every type: the feed reads a single index range with no joins. Subclass
+// columns are shared (post_id, forum_id, title) or unused by the other types, so they stay nullable
+@Inheritance(strategy = InheritanceType.SINGLE_TABLE)
+@DiscriminatorColumn(name = "notification_type", length = 16)
+@Table(name = "notification_feed", indexes = {
+        // Serves the feed page (and its cursor) as a single index range scan
+        @Index(name = "idx_notification_feed_user_id_creation_date", columnList = "user_id, creation_date desc, id desc")
+})
 public abstract class Notification {
 
+    // Explicit so the legacy migration can move the sequence past the copied ids
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_feed_seq")
+    @SequenceGenerator(name = "notification_feed_seq", sequenceName = "notification_feed_seq", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false)
+    @Column(name = "user_id", nullable = false)
     private Long userId;
 
     @Column(nullable = false)
     private Boolean isSeen = false;
 
-    @Column(nullable = false)
+    @Column(name = "creation_date", nullable = false)
     @CreationTimestamp
     private LocalDateTime creationDate;
 
-    public abstract String getType();
+    // How many events were collapsed into this row (e.g. "12 new comments on your post")
+    @Column(nullable = false)
+    @ColumnDefault("1")
+    private Integer aggregateCount = 1;
+
+    public abstract NotificationType getType();
 }
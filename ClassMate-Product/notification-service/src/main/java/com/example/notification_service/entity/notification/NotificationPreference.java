@@ -12,14 +12,16 @@ import lombok.Setter;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "notification_preferences")
+@Table(name = "notification_preferences", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_notification_preferences_user_id", columnNames = {"user_id"})
+})
 public class NotificationPreference {
 
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
 
-    @Column(nullable = false)
+    @Column(name = "user_id", nullable = false)
     private Long userId;
 
     @Column(nullable = false)
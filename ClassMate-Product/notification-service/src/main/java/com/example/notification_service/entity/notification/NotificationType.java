@@ -0,0 +1,37 @@
+package com.example.notification_service.entity.notification;
+
+/**
+ * Notification kinds a user can switch on or off, each with its bit in the
+ * cached preference mask.
+ */
+public enum NotificationType {
+    COMMENT,
+    MILESTONE,
+    MESSAGE,
+    EVENT;
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public boolean isEnabledIn(int mask) {
+        return (mask & bit()) != 0;
+    }
+
+    public static int maskOf(NotificationPreference preference) {
+        int mask = 0;
+        if (Boolean.TRUE.equals(preference.getCommentNotificationEnabled())) {
+            mask |= COMMENT.bit();
+        }
+        if (Boolean.TRUE.equals(preference.getLikeNotificationEnabled())) {
+            mask |= MILESTONE.bit();
+        }
+        if (Boolean.TRUE.equals(preference.getMessageNotificationEnabled())) {
+            mask |= MESSAGE.bit();
+        }
+        if (Boolean.TRUE.equals(preference.getEventNotificationEnabled())) {
+            mask |= EVENT.bit();
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.notification_service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends RuntimeException {
+    private String cursor;
+
+    public InvalidCursorException(String cursor) {
+        super(String.format("Cursor : %s is not valid.", cursor));
+        this.cursor = cursor;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.notification_service.repository;
+
+import com.example.notification_service.entity.notification.CommentNotification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface CommentNotificationRepository extends JpaRepository<CommentNotification, Long> {
+
+    // Folds one more comment into the latest unread notification for the same post that is still
+    // inside the aggregation window, in a single statement so a concurrent mark as seen is never
+    // overwritten. Returns the merged row id, or null when there is no such row and a new one is needed.
+    // Returns a row, so it is not a @Modifying query, and needs a read-write transaction.
+    @Query(value = "WITH merged AS (UPDATE notification_feed SET aggregate_count = aggregate_count + 1, comment_id = :commentId, " +
+                   "title = :title, creation_date = :now " +
+                   "WHERE id = (SELECT id FROM notification_feed WHERE notification_type = 'COMMENT' " +
+                   "AND user_id = :userId AND post_id = :postId AND is_seen = false AND creation_date > :windowStart " +
+                   "ORDER BY creation_date DESC LIMIT 1) " +
+                   "AND is_seen = false " +
+                   "RETURNING id) " +
+                   "SELECT id FROM merged",
+           nativeQuery = true)
+    Long mergeIntoUnread(@Param("userId") Long userId,
+                         @Param("postId") Long postId,
+                         @Param("commentId") Long commentId,
+                         @Param("title") String title,
+                         @Param("windowStart") LocalDateTime windowStart,
+                         @Param("now") LocalDateTime now);
+}
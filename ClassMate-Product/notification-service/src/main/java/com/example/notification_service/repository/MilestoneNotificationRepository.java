@@ -0,0 +1,31 @@
+package com.example.notification_service.repository;
+
+import com.example.notification_service.entity.notification.MilestoneNotification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface MilestoneNotificationRepository extends JpaRepository<MilestoneNotification, Long> {
+
+    // Same as CommentNotificationRepository#mergeIntoUnread for the latest unread milestone of the same
+    // kind on the same post; never reports a lower milestone than the row already holds
+    @Query(value = "WITH merged AS (UPDATE notification_feed SET aggregate_count = aggregate_count + 1, " +
+                   "milestone = GREATEST(milestone, :milestone), title = :title, creation_date = :now " +
+                   "WHERE id = (SELECT id FROM notification_feed WHERE notification_type = 'MILESTONE' " +
+                   "AND user_id = :userId AND post_id = :postId AND milestone_type = :milestoneType " +
+                   "AND is_seen = false AND creation_date > :windowStart " +
+                   "ORDER BY creation_date DESC LIMIT 1) " +
+                   "AND is_seen = false " +
+                   "RETURNING id) " +
+                   "SELECT id FROM merged",
+           nativeQuery = true)
+    Long mergeIntoUnread(@Param("userId") Long userId,
+                         @Param("postId") Long postId,
+                         @Param("milestoneType") String milestoneType,
+                         @Param("milestone") Integer milestone,
+                         @Param("title") String title,
+                         @Param("windowStart") LocalDateTime windowStart,
+                         @Param("now") LocalDateTime now);
+}
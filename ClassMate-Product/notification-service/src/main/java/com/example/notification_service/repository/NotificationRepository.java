@@ -4,12 +4,67 @@ import com.example.notification_service.entity.notification.Notification;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-
+import java.time.LocalDateTime;
+import java.util.List;
 
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
     Page<Notification> findByUserIdOrderByCreationDateDesc(Long userId, Pageable pageable);
 
+    // Both feed queries walk idx_notification_feed_user_id_creation_date newest-first and stop after one page
+    List<Notification> findByUserIdOrderByCreationDateDescIdDesc(Long userId, Pageable pageable);
+
+    @Query("SELECT n FROM Notification n " +
+           "WHERE n.userId = :userId " +
+           "AND (n.creationDate < :beforeCreationDate OR (n.creationDate = :beforeCreationDate AND n.id < :beforeId)) " +
+           "ORDER BY n.creationDate DESC, n.id DESC")
+    List<Notification> findByUserIdBefore(@Param("userId") Long userId,
+                                          @Param("beforeCreationDate") LocalDateTime beforeCreationDate,
+                                          @Param("beforeId") Long beforeId,
+                                          Pageable pageable);
+
+    // The mark statements below change the rows and the unread counter in one statement and
+    // return how many notifications changed. They return rows, so they are not @Modifying
+    // queries, and need a read-write transaction.
+
+    @Transactional
+    @Query(value = "WITH changed AS (" +
+                   "UPDATE notification_feed SET is_seen = :isSeen WHERE id = :id AND is_seen <> :isSeen RETURNING user_id), " +
+                   "counter AS (" +
+                   "UPDATE notification_unread_counter c SET unread_count = GREATEST(c.unread_count + CASE WHEN :isSeen THEN -1 ELSE 1 END, 0) " +
+                   "FROM changed WHERE c.user_id = changed.user_id RETURNING c.user_id) " +
+                   "SELECT COUNT(*) FROM changed",
+           nativeQuery = true)
+    Long updateIsSeen(@Param("id") Long id, @Param("isSeen") Boolean isSeen);
+
+    @Transactional
+    @Query(value = "WITH changed AS (" +
+                   "UPDATE notification_feed SET is_seen = true WHERE user_id = :userId AND is_seen = false RETURNING id), " +
+                   "counter AS (" +
+                   "UPDATE notification_unread_counter SET unread_count = GREATEST(unread_count - (SELECT COUNT(*) FROM changed), 0) " +
+                   "WHERE user_id = :userId RETURNING user_id) " +
+                   "SELECT COUNT(*) FROM changed",
+           nativeQuery = true)
+    Long markAllAsSeen(@Param("userId") Long userId);
+
+    // Marks the given notification and every older one, in feed order
+    @Transactional
+    @Query(value = "WITH bound AS (" +
+                   "SELECT creation_date, id FROM notification_feed WHERE id = :upToId AND user_id = :userId), " +
+                   "changed AS (" +
+                   "UPDATE notification_feed n SET is_seen = true FROM bound " +
+                   "WHERE n.user_id = :userId AND n.is_seen = false " +
+                   "AND (n.creation_date < bound.creation_date OR (n.creation_date = bound.creation_date AND n.id <= bound.id)) " +
+                   "RETURNING n.id), " +
+                   "counter AS (" +
+                   "UPDATE notification_unread_counter SET unread_count = GREATEST(unread_count - (SELECT COUNT(*) FROM changed), 0) " +
+                   "WHERE user_id = :userId RETURNING user_id) " +
+                   "SELECT COUNT(*) FROM changed",
+           nativeQuery = true)
+    Long markAsSeenUpTo(@Param("userId") Long userId, @Param("upToId") Long upToId);
 }
@@ -0,0 +1,24 @@
+package com.example.notification_service.repository;
+
+import com.example.notification_service.entity.notification.NotificationUnreadCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface NotificationUnreadCounterRepository extends JpaRepository<NotificationUnreadCounter, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO notification_unread_counter (user_id, unread_count) VALUES (:userId, :delta) " +
+                   "ON CONFLICT (user_id) DO UPDATE SET unread_count = notification_unread_counter.unread_count + EXCLUDED.unread_count",
+           nativeQuery = true)
+    void increment(@Param("userId") Long userId, @Param("delta") long delta);
+
+    // Seeds the counters of users whose notifications predate them
+    @Modifying
+    @Query(value = "INSERT INTO notification_unread_counter (user_id, unread_count) " +
+                   "SELECT user_id, COUNT(*) FROM notification_feed WHERE is_seen = false GROUP BY user_id " +
+                   "ON CONFLICT (user_id) DO NOTHING",
+           nativeQuery = true)
+    int seedFromNotifications();
+}
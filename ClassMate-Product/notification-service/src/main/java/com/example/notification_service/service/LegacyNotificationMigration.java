@@ -0,0 +1,96 @@
+package com.example.notification_service.service;
+
+import com.example.notification_service.repository.NotificationUnreadCounterRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * One-off copy of the notifications stored with the old joined layout (notifications plus
+ * one table per type) into notification_feed. Runs before the listeners and the dispatcher
+ * start, so no new row can take a copied id. The old base table is renamed afterwards, which
+ * marks the migration as done and keeps the data around until it is dropped by hand. Nodes
+ * starting together take turns on an advisory lock, and a node that gets it after the rename
+ * finds nothing left to copy.
+ * Users whose notifications predate the unread counters get theirs seeded from the feed.
+ */
+@Service
+@DependsOn("entityManagerFactory") // notification_feed must have been created by the schema update
+public class LegacyNotificationMigration {
+    private static final String COPY_SQL =
+            "INSERT INTO notification_feed (id, notification_type, user_id, is_seen, creation_date, aggregate_count, " +
+            "post_id, comment_id, forum_id, title, milestone, milestone_type, sender_id, sender_name, event_title, start_date) " +
+            "SELECT n.id, " +
+            "CASE WHEN c.id IS NOT NULL THEN 'COMMENT' WHEN m.id IS NOT NULL THEN 'MILESTONE' " +
+            "WHEN ms.id IS NOT NULL THEN 'MESSAGE' ELSE 'EVENT' END, " +
+            "n.user_id, n.is_seen, n.creation_date, %s, " +
+            "COALESCE(c.post_id, m.post_id), c.comment_id, COALESCE(c.forum_id, m.forum_id), COALESCE(c.title, m.title), " +
+            "m.milestone, m.milestone_type, ms.sender_id, ms.sender_name, e.event_title, e.start_date " +
+            "FROM notifications n " +
+            "LEFT JOIN comment_notification c ON c.id = n.id " +
+            "LEFT JOIN milestone_notification m ON m.id = n.id " +
+            "LEFT JOIN message_notification ms ON ms.id = n.id " +
+            "LEFT JOIN event_notification e ON e.id = n.id " +
+            "WHERE c.id IS NOT NULL OR m.id IS NOT NULL OR ms.id IS NOT NULL OR e.id IS NOT NULL " +
+            "ON CONFLICT (id) DO NOTHING";
+    private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(hashtext('legacy_notification_migration'))";
+    // Past every copied id by a full allocation block, so the pooled generator never hands one out again
+    private static final String MOVE_SEQUENCE_SQL =
+            "SELECT setval('notification_feed_seq', (SELECT COALESCE(MAX(id), 0) FROM notification_feed) + 50)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationUnreadCounterRepository unreadCounterRepository;
+    private final Logger LOGGER = LoggerFactory.getLogger(LegacyNotificationMigration.class);
+
+    public LegacyNotificationMigration(JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate,
+                                       NotificationUnreadCounterRepository unreadCounterRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.unreadCounterRepository = unreadCounterRepository;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        copyLegacyNotifications();
+        if (unreadCounterRepository.count() == 0) {
+            Integer seeded = transactionTemplate.execute(status -> unreadCounterRepository.seedFromNotifications());
+            if (seeded != null && seeded > 0) {
+                LOGGER.info(String.format("Seeded unread counters for %d users", seeded));
+            }
+        }
+    }
+
+    private void copyLegacyNotifications() {
+        if (!legacyTablesExist()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            // Another node may have copied and renamed the tables while we waited for the lock
+            jdbcTemplate.execute(LOCK_SQL);
+            if (!legacyTablesExist()) {
+                return;
+            }
+            // Rows written before aggregation existed have no count column
+            Boolean hasAggregateCount = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM information_schema.columns WHERE table_name = 'notifications' AND column_name = 'aggregate_count')",
+                    Boolean.class);
+            String aggregateCount = Boolean.TRUE.equals(hasAggregateCount) ? "COALESCE(n.aggregate_count, 1)" : "1";
+
+            int copied = jdbcTemplate.update(String.format(COPY_SQL, aggregateCount));
+            jdbcTemplate.queryForObject(MOVE_SEQUENCE_SQL, Long.class);
+            jdbcTemplate.execute("ALTER TABLE notifications RENAME TO notifications_legacy");
+            LOGGER.info(String.format("Copied %d notifications into notification_feed, the old tables can be dropped", copied));
+        });
+    }
+
+    private boolean legacyTablesExist() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass('notifications') IS NOT NULL AND to_regclass('comment_notification') IS NOT NULL", Boolean.class));
+    }
+}
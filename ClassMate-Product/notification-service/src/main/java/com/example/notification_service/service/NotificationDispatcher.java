@@ -0,0 +1,134 @@
+package com.example.notification_service.service;
+
+import com.example.notification_service.dto.NotificationDTO;
+import com.example.notification_service.entity.notification.CommentNotification;
+import com.example.notification_service.entity.notification.MilestoneNotification;
+import com.example.notification_service.entity.notification.Notification;
+import com.example.notification_service.repository.CommentNotificationRepository;
+import com.example.notification_service.repository.MilestoneNotificationRepository;
+import com.example.notification_service.repository.NotificationRepository;
+import com.example.notification_service.repository.NotificationUnreadCounterRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores the notifications created by the consumers and pushes them out every
+ * {@code notifications.dispatch.flush-interval-ms}.
+ * <p>
+ * Each notification is written on the listener thread, before the broker message is
+ * acknowledged, so a crash cannot lose it and a failing write goes through the listener's
+ * retry policy. Comment and milestone notifications are merged into the user's unread row for
+ * the same (user, type, post) if that row was touched within
+ * {@code notifications.aggregation.window-ms}, or saved as a new row otherwise; the row keeps
+ * the latest details and counts the collapsed events. The merge is a single UPDATE that only
+ * matches a row still unread, so it never undoes a concurrent mark as seen. Only the WebSocket
+ * frames are batched: each user gets one frame per flush with the latest state of every new or
+ * updated row.
+ */
+@Service
+public class NotificationDispatcher {
+    private final NotificationRepository notificationRepository;
+    private final NotificationUnreadCounterRepository unreadCounterRepository;
+    private final CommentNotificationRepository commentNotificationRepository;
+    private final MilestoneNotificationRepository milestoneNotificationRepository;
+    private final NotificationService notificationService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Logger LOGGER = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    @Value("${notifications.aggregation.window-ms:3600000}")
+    private long aggregationWindowMs;
+    @Value("${notifications.dispatch.max-frame-size:20}")
+    private int maxFrameSize;
+
+    // Stored rows not pushed yet, by row id; a row updated twice in one flush is sent once
+    private Map<Long, NotificationDTO> pending = new LinkedHashMap<>();
+
+    public NotificationDispatcher(NotificationRepository notificationRepository,
+                                  NotificationUnreadCounterRepository unreadCounterRepository,
+                                  CommentNotificationRepository commentNotificationRepository,
+                                  MilestoneNotificationRepository milestoneNotificationRepository,
+                                  NotificationService notificationService,
+                                  SimpMessagingTemplate messagingTemplate,
+                                  TransactionTemplate transactionTemplate) {
+        this.notificationRepository = notificationRepository;
+        this.unreadCounterRepository = unreadCounterRepository;
+        this.commentNotificationRepository = commentNotificationRepository;
+        this.milestoneNotificationRepository = milestoneNotificationRepository;
+        this.notificationService = notificationService;
+        this.messagingTemplate = messagingTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void dispatch(Notification notification) {
+        Notification stored = transactionTemplate.execute(status -> store(notification));
+        NotificationDTO frame = notificationService.convertToDTO(stored);
+        synchronized (this) {
+            // Moved to the end so rows are delivered in the order they were last touched
+            pending.remove(stored.getId());
+            pending.put(stored.getId(), frame);
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${notifications.dispatch.flush-interval-ms:1000}")
+    public void flush() {
+        Map<Long, NotificationDTO> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+
+        Map<Long, List<NotificationDTO>> framesByUserId = new LinkedHashMap<>();
+        for (NotificationDTO notification : batch.values()) {
+            framesByUserId.computeIfAbsent(notification.getUserId(), userId -> new ArrayList<>()).add(notification);
+        }
+        framesByUserId.forEach(this::send);
+    }
+
+    private Notification store(Notification notification) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime windowStart = now.minusNanos(aggregationWindowMs * 1_000_000);
+
+        // Bumping the date keeps the merged row on top of the list and slides its window forward
+        Long mergedId = null;
+        if (notification instanceof CommentNotification comment) {
+            mergedId = commentNotificationRepository.mergeIntoUnread(comment.getUserId(), comment.getPostId(),
+                    comment.getCommentId(), comment.getTitle(), windowStart, now);
+        } else if (notification instanceof MilestoneNotification milestone) {
+            mergedId = milestoneNotificationRepository.mergeIntoUnread(milestone.getUserId(), milestone.getPostId(),
+                    milestone.getMilestoneType(), milestone.getMilestone(), milestone.getTitle(), windowStart, now);
+        }
+
+        if (mergedId != null) {
+            return notificationRepository.findById(mergedId).orElseThrow();
+        }
+        notification.setAggregateCount(1);
+        // Merged rows were already unread, only new rows move the badge
+        unreadCounterRepository.increment(notification.getUserId(), 1);
+        return notificationRepository.save(notification);
+    }
+
+    private void send(Long userId, List<NotificationDTO> notifications) {
+        for (int i = 0; i < notifications.size(); i += maxFrameSize) {
+            messagingTemplate.convertAndSend("/topic/notifications/" + userId,
+                    notifications.subList(i, Math.min(i + maxFrameSize, notifications.size())));
+        }
+        LOGGER.info(String.format("Sent %d notifications to user with id '%d'", notifications.size(), userId));
+    }
+}
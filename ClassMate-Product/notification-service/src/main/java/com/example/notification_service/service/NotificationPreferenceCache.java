@@ -0,0 +1,96 @@
+package com.example.notification_service.service;
+
+import com.example.notification_service.entity.notification.NotificationPreference;
+import com.example.notification_service.entity.notification.NotificationType;
+import com.example.notification_service.repository.NotificationPreferenceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of each user's enabled notification types as a bitmask, so
+ * consumers check preferences without a query per notification. Updates made on
+ * this node are written through; entries expire after
+ * {@code notifications.preferences.cache.ttl-ms} to pick up updates made on others.
+ */
+@Service
+public class NotificationPreferenceCache {
+    private final NotificationPreferenceRepository preferenceRepository;
+    private final TransactionTemplate requiresNewTransaction;
+    private final Map<Long, CachedMask> masksByUserId;
+    private final Logger LOGGER = LoggerFactory.getLogger(NotificationPreferenceCache.class);
+
+    @Value("${notifications.preferences.cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    public NotificationPreferenceCache(NotificationPreferenceRepository preferenceRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${notifications.preferences.cache.max-size:10000}") int maxSize) {
+        this.preferenceRepository = preferenceRepository;
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.masksByUserId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedMask> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public boolean isEnabled(Long userId, NotificationType notificationType) {
+        CachedMask cached;
+        synchronized (this) {
+            cached = masksByUserId.get(userId);
+        }
+        if (cached == null || System.currentTimeMillis() - cached.loadedAt > ttlMs) {
+            return notificationType.isEnabledIn(put(getOrCreate(userId)));
+        }
+        return notificationType.isEnabledIn(cached.mask);
+    }
+
+    // Write-through after the preferences were saved
+    public int put(NotificationPreference preference) {
+        int mask = NotificationType.maskOf(preference);
+        synchronized (this) {
+            masksByUserId.put(preference.getUserId(), new CachedMask(mask, System.currentTimeMillis()));
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the stored preferences, inserting the defaults for users that have none.
+     * Concurrent first notifications for the same user both end up with the single row
+     * allowed by the unique user_id constraint.
+     */
+    public NotificationPreference getOrCreate(Long userId) {
+        return preferenceRepository.findByUserId(userId)
+                .orElseGet(() -> insertDefaults(userId));
+    }
+
+    private NotificationPreference insertDefaults(Long userId) {
+        NotificationPreference defaultPreferences = new NotificationPreference();
+        defaultPreferences.setUserId(userId);
+        defaultPreferences.setCommentNotificationEnabled(true);
+        defaultPreferences.setEventNotificationEnabled(true);
+        defaultPreferences.setLikeNotificationEnabled(true);
+        defaultPreferences.setMessageNotificationEnabled(true);
+        try {
+            // Own transaction, so losing the race never marks the caller's transaction rollback-only
+            return requiresNewTransaction.execute(status -> preferenceRepository.saveAndFlush(defaultPreferences));
+        } catch (DataIntegrityViolationException e) {
+            LOGGER.info(String.format("Default preferences for user %d were created concurrently", userId));
+            return preferenceRepository.findByUserId(userId).orElseThrow(() -> e);
+        }
+    }
+
+    private record CachedMask(int mask, long loadedAt) {
+    }
+}
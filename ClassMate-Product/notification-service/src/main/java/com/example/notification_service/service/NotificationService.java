@@ -2,6 +2,7 @@ package com.example.notification_service.service;
 
 
 import com.example.notification_service.dto.NotificationDTO;
+import com.example.notification_service.dto.NotificationFeedPageDTO;
 import com.example.notification_service.dto.NotificationUpdateDTO;
 import com.example.notification_service.entity.notification.Notification;
 import org.springframework.data.domain.Page;
@@ -14,8 +15,14 @@ public interface NotificationService {
 
     Page<NotificationDTO> getUserNotifications(Long userId, Pageable pageable);
 
+    NotificationFeedPageDTO getUserFeed(Long userId, String before, int size);
+
     void updateNotification(NotificationUpdateDTO notificationUpdateDTO);
 
+    Long getUnreadCount(Long userId);
+
+    Long markAsSeen(Long userId, Long upToId);
+
     Boolean canSendNotification(Long userId, String notificationType);
 
     NotificationDTO convertToDTO(Notification notification);
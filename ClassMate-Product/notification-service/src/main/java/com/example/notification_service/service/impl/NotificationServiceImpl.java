@@ -2,31 +2,46 @@ package com.example.notification_service.service.impl;
 
 import com.example.notification_service.dto.APIDTOS.calendarEvent.EventNotificationResponseDTO;
 import com.example.notification_service.dto.NotificationDTO;
+import com.example.notification_service.dto.NotificationFeedPageDTO;
 import com.example.notification_service.dto.NotificationUpdateDTO;
 import com.example.notification_service.dto.APIDTOS.comment.CommentNotificationResponseDTO;
 import com.example.notification_service.dto.APIDTOS.message.MessageNotificationResponseDTO;
 import com.example.notification_service.dto.APIDTOS.milestone.MilestoneNotificationResponseDTO;
 import com.example.notification_service.entity.notification.*;
+import com.example.notification_service.exception.InvalidCursorException;
 
-import com.example.notification_service.repository.NotificationPreferenceRepository;
 import com.example.notification_service.repository.NotificationRepository;
+import com.example.notification_service.repository.NotificationUnreadCounterRepository;
+import com.example.notification_service.service.NotificationPreferenceCache;
 import com.example.notification_service.service.NotificationService;
 import org.aspectj.weaver.ast.Not;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
 
 
 @Service
 public class NotificationServiceImpl implements NotificationService {
+    private static final int MAX_FEED_PAGE_SIZE = 50;
+
     private final NotificationRepository notificationRepository;
-    private final NotificationPreferenceRepository preferenceRepository;
+    private final NotificationUnreadCounterRepository unreadCounterRepository;
+    private final NotificationPreferenceCache preferenceCache;
 
 
-    public NotificationServiceImpl(NotificationRepository notificationRepository, NotificationPreferenceRepository preferenceRepository) {
+    public NotificationServiceImpl(NotificationRepository notificationRepository,
+                                   NotificationUnreadCounterRepository unreadCounterRepository,
+                                   NotificationPreferenceCache preferenceCache) {
         this.notificationRepository = notificationRepository;
-        this.preferenceRepository = preferenceRepository;
+        this.unreadCounterRepository = unreadCounterRepository;
+        this.preferenceCache = preferenceCache;
     }
 
     // Get notifications by userId
@@ -37,46 +52,51 @@ public class NotificationServiceImpl implements NotificationService {
         return notifications.map(this::convertToDTO); // Convert to DTO with map()
     }
 
+    @Override
+    public NotificationFeedPageDTO getUserFeed(Long userId, String before, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_FEED_PAGE_SIZE));
+        // One extra row tells us whether an older page exists without a count query
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        List<Notification> newestFirst;
+        if (before == null || before.isBlank()) {
+            newestFirst = notificationRepository.findByUserIdOrderByCreationDateDescIdDesc(userId, pageable);
+        } else {
+            FeedCursor cursor = FeedCursor.decode(before);
+            newestFirst = notificationRepository.findByUserIdBefore(userId, cursor.creationDate(), cursor.id(), pageable);
+        }
+
+        boolean hasMore = newestFirst.size() > pageSize;
+        List<Notification> page = newestFirst.subList(0, Math.min(pageSize, newestFirst.size()));
+
+        return NotificationFeedPageDTO.builder()
+                .notifications(page.stream().map(this::convertToDTO).toList())
+                .nextCursor(hasMore ? FeedCursor.encode(page.get(page.size() - 1)) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
 
     // Before sending a notification, check the user’s preferences
     @Override
     public Boolean canSendNotification(Long userId, String notificationType) {
-        NotificationPreference preference = preferenceRepository.findByUserId(userId)
-                .orElseGet(() -> createDefaultPreferencesForUser(userId)); // Create or return default preferences
-
-        switch (notificationType) {
-            case "COMMENT":
-                return preference.getCommentNotificationEnabled();
-            case "MILESTONE":
-                return preference.getLikeNotificationEnabled();
-            case "MESSAGE":
-                return preference.getMessageNotificationEnabled();
-            case "EVENT":
-                return preference.getEventNotificationEnabled();
-            default:
-                return false;
+        try {
+            return preferenceCache.isEnabled(userId, NotificationType.valueOf(notificationType));
+        } catch (IllegalArgumentException e) {
+            return false;
         }
     }
 
-    private NotificationPreference createDefaultPreferencesForUser(Long userId) {
-        NotificationPreference defaultPreferences = new NotificationPreference();
-        defaultPreferences.setUserId(userId);
-        defaultPreferences.setCommentNotificationEnabled(true);
-        defaultPreferences.setEventNotificationEnabled(true);
-        defaultPreferences.setLikeNotificationEnabled(true);
-        defaultPreferences.setMessageNotificationEnabled(true);
-        return preferenceRepository.save(defaultPreferences);
-    }
-
     @Override
     public NotificationDTO convertToDTO(Notification notification) {
-        return switch (notification.getClass().getSimpleName()) {
-            case "CommentNotification" -> getCommentNotificationResponseDTO(notification);
-            case "MessageNotification" -> getMessageNotificationResponseDTO(notification);
-            case "MilestoneNotification" -> getMilestoneNotificationResponseDTO(notification);
-            case "EventNotification" -> getEventNotificationResponseDTO(notification);
-            default -> throw new IllegalArgumentException("Unknown notification type: " + notification.getClass().getSimpleName());
+        // Exhaustive over the enum, a new type does not compile until it is mapped here
+        NotificationDTO notificationDTO = switch (notification.getType()) {
+            case COMMENT -> getCommentNotificationResponseDTO(notification);
+            case MESSAGE -> getMessageNotificationResponseDTO(notification);
+            case MILESTONE -> getMilestoneNotificationResponseDTO(notification);
+            case EVENT -> getEventNotificationResponseDTO(notification);
         };
+        notificationDTO.setAggregateCount(notification.getAggregateCount());
+        return notificationDTO;
     }
 
 
@@ -130,12 +150,49 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
 
+    // A single statement, the unread counter only moves when the flag actually changes
     @Override
     public void updateNotification(NotificationUpdateDTO notificationUpdateDTO) {
-        Notification notification = notificationRepository.findById(notificationUpdateDTO.getId()).orElseThrow(); //TODO: Exception handling
-        notification.setIsSeen(notificationUpdateDTO.getIsSeen());
-        notificationRepository.save(notification);
+        notificationRepository.updateIsSeen(notificationUpdateDTO.getId(), notificationUpdateDTO.getIsSeen());
     }
 
+    @Override
+    public Long getUnreadCount(Long userId) {
+        return unreadCounterRepository.findById(userId)
+                .map(NotificationUnreadCounter::getUnreadCount)
+                .orElse(0L);
+    }
+
+    // Marks every notification of the user, or only upToId and the older ones, in one statement
+    @Override
+    public Long markAsSeen(Long userId, Long upToId) {
+        return upToId == null
+                ? notificationRepository.markAllAsSeen(userId)
+                : notificationRepository.markAsSeenUpTo(userId, upToId);
+    }
 
+    /**
+     * Position of the oldest notification already shown, encoded as "{epochMicros}_{id}".
+     * Microseconds match the column precision, so no row is skipped between pages.
+     */
+    private record FeedCursor(LocalDateTime creationDate, Long id) {
+        static String encode(Notification notification) {
+            LocalDateTime creationDate = notification.getCreationDate();
+            long epochMicros = ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), creationDate);
+            return String.format("%d_%d", epochMicros, notification.getId());
+        }
+
+        static FeedCursor decode(String cursor) {
+            String[] parts = cursor.split("_");
+            if (parts.length != 2) {
+                throw new InvalidCursorException(cursor);
+            }
+            try {
+                LocalDateTime creationDate = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC).plus(Long.parseLong(parts[0]), ChronoUnit.MICROS);
+                return new FeedCursor(creationDate, Long.parseLong(parts[1]));
+            } catch (NumberFormatException e) {
+                throw new InvalidCursorException(cursor);
+            }
+        }
+    }
 }
@@ -1,34 +1,71 @@
 package com.classmate.post_service.consumer;
 
+import com.classmate.messaging.dedup.MessageDeduplicator;
 import com.classmate.post_service.dto.comment_count_event.CommentCountEvent;
-import com.classmate.post_service.entity.Post;
-import com.classmate.post_service.exception.PostNotFoundException;
 import com.classmate.post_service.repository.IPostRepository;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Applies comment count events in batches (see the commentCountEventQueue listener policy).
+ * The deltas of a batch are summed per post and written with one relative update each, in
+ * post id order so concurrent consumers lock rows in the same order. Redelivered events are
+ * dropped by message id, since applying a delta twice would skew the count.
+ */
 @Service
 @Slf4j
 public class CommentCountEventConsumer {
     private IPostRepository postRepository;
+    private MessageDeduplicator messageDeduplicator;
 
     private Logger LOGGER = LoggerFactory.getLogger(CommentCountEventConsumer.class);
 
-    public CommentCountEventConsumer(IPostRepository postRepository) {
+    public CommentCountEventConsumer(IPostRepository postRepository, MessageDeduplicator messageDeduplicator) {
         this.postRepository = postRepository;
+        this.messageDeduplicator = messageDeduplicator;
     }
 
     @Transactional
-    @RabbitListener(queues = "${rabbitmq.queue.comment-count-event-queue}")
-    public void setCommentCount(CommentCountEvent commentCountEvent){
-        LOGGER.info(String.format("Comment Count" + commentCountEvent));
-        Post commentedPost = postRepository.findById(commentCountEvent.getPostId())
-                .orElseThrow(() -> new PostNotFoundException(String.format("Post with id: %d not found.", commentCountEvent.getPostId())));
-        commentedPost.setCommentCount(commentCountEvent.getCommentCount());
-        postRepository.save(commentedPost);
+    @RabbitListener(queues = "${rabbitmq.queue.comment-count-event-queue}", batch = "true")
+    public void updateCommentCounts(List<Message<CommentCountEvent>> messages){
+        Map<Long, PendingCount> pendingByPostId = new TreeMap<>();
+        for (Message<CommentCountEvent> message : messages) {
+            if (!messageDeduplicator.firstDelivery(message.getHeaders().get(AmqpHeaders.MESSAGE_ID, String.class))) {
+                continue;
+            }
+            CommentCountEvent event = message.getPayload();
+            PendingCount pending = pendingByPostId.getOrDefault(event.getPostId(), new PendingCount(null, 0));
+            // Absolute counts restart the sum, deltas received after them still apply
+            pendingByPostId.put(event.getPostId(), event.getDelta() != null
+                    ? new PendingCount(pending.commentCount, pending.delta + event.getDelta())
+                    : new PendingCount(event.getCommentCount(), 0));
+        }
+
+        pendingByPostId.forEach((postId, pending) -> {
+            // Comments added and removed within the batch cancel out
+            if (pending.commentCount == null && pending.delta == 0) {
+                return;
+            }
+            int updated = pending.commentCount != null
+                    ? postRepository.setCommentCount(postId, pending.commentCount + pending.delta)
+                    : postRepository.incrementCommentCount(postId, pending.delta);
+            if (updated == 0) {
+                LOGGER.warn(String.format("Post with id: %d not found, comment count not updated.", postId));
+            }
+        });
+        LOGGER.info(String.format("Applied %d comment count events to %d posts", messages.size(), pendingByPostId.size()));
+    }
+
+    private record PendingCount(Long commentCount, long delta) {
     }
 }
@@ -1,5 +1,6 @@
 package com.classmate.post_service.consumer;
 
+import com.classmate.messaging.dedup.MessageDeduplicator;
 import com.classmate.post_service.dto.user.UserDTO;
 import com.classmate.post_service.entity.User;
 import com.classmate.post_service.repository.IUserRepository;
@@ -8,21 +9,28 @@ import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
 @Service
 @Slf4j
 public class CreateUserEventConsumer {
     private IUserRepository userRepository;
+    private MessageDeduplicator messageDeduplicator;
     private Logger LOGGER = LoggerFactory.getLogger(CreateUserEventConsumer.class);
 
-    public CreateUserEventConsumer(IUserRepository userRepository) {
+    public CreateUserEventConsumer(IUserRepository userRepository, MessageDeduplicator messageDeduplicator) {
         this.userRepository = userRepository;
+        this.messageDeduplicator = messageDeduplicator;
     }
 
     @Transactional
     @RabbitListener(queues = "${rabbitmq.queue.create-user-post-service-queue}")
-    public void consumeCreateUserEvent(UserDTO userDTO){
+    public void consumeCreateUserEvent(UserDTO userDTO, @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId){
+        if (!messageDeduplicator.firstDelivery(messageId)) {
+            return;
+        }
         LOGGER.info(String.format("Saving user with id: %d and nickname: %s", userDTO.getUserId(), userDTO.getNickname()));
         User user = User.builder()
                 .userId(userDTO.getUserId())
@@ -1,76 +1,41 @@
 package com.classmate.post_service.consumer;
 
 import com.classmate.post_service.dto.ForumDeletionDTO;
-import com.classmate.post_service.dto.PostDeletionDTO;
-import com.classmate.post_service.dto.filedtos.PostFileDeletionDTO;
-import com.classmate.post_service.entity.Attachment;
-import com.classmate.post_service.entity.Post;
-import com.classmate.post_service.publisher.PostPublisher;
-import com.classmate.post_service.repository.IPostRepository;
-import jakarta.transaction.Transactional;
+import com.classmate.post_service.entity.ForumDeletionProgress;
+import com.classmate.post_service.service.IForumDeletionService;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
+/**
+ * Deletes the posts of a deleted forum chunk by chunk, each chunk in its own transaction
+ * with its checkpoint. A redelivered or retried message resumes where the last committed
+ * chunk stopped, and a message for a forum already cleaned up does nothing.
+ */
 @Service
 @Slf4j
 public class ForumDeletionConsumer {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ForumDeletionConsumer.class);
 
-    private final IPostRepository postRepository;
-    private final PostPublisher postPublisher;
+    private final IForumDeletionService forumDeletionService;
 
-    public ForumDeletionConsumer(IPostRepository postRepository, PostPublisher postPublisher) {
-        this.postRepository = postRepository;
-        this.postPublisher = postPublisher;
+    public ForumDeletionConsumer(IForumDeletionService forumDeletionService) {
+        this.forumDeletionService = forumDeletionService;
     }
 
-    @Transactional
     @RabbitListener(queues = "${rabbitmq.queue.delete-forum-queue}")
     public void deletePostsByForumId(ForumDeletionDTO forumDeletionDTO) {
         Long forumId = forumDeletionDTO.getForumId();
-        int batchSize = 100;
-        Pageable pageable = PageRequest.of(0, batchSize);
-        Page<Post> postsPage;
-
-        do {
-            postsPage = postRepository.findByForumId(forumId, pageable);
-            List<Post> posts = postsPage.getContent();
-
-            for (Post post : posts) {
-                // Publish file deletion event for all attachments of the post
-                List<Long> attachmentIds = post.getAttachments().stream()
-                        .map(Attachment::getId)
-                        .toList();
-
-                if (attachmentIds != null && !attachmentIds.isEmpty()) {
-                    PostFileDeletionDTO postFileDeletionDTO = PostFileDeletionDTO.builder()
-                            .attachmentIdsToDelete(attachmentIds)
-                            .build();
-                    postPublisher.publishPostAllFileDeleteEvent(postFileDeletionDTO);
-                }
-
-                // Publish post deletion event
-                PostDeletionDTO postDeletionDTO = PostDeletionDTO.builder()
-                        .postId(post.getId())
-                        .build();
-                postPublisher.publishPostDeletion(postDeletionDTO);
-
-                // Delete the post
-                postRepository.delete(post);
-            }
-
-            pageable = postsPage.nextPageable();
-        } while (postsPage.hasNext());
-
-        LOGGER.info(String.format("Posts for forum %d deleted.", forumId));
+        ForumDeletionProgress progress = forumDeletionService.deleteNextChunk(forumId);
+        while (!progress.isCompleted()) {
+            LOGGER.info(String.format("Forum %d deletion: %d posts deleted so far.", forumId, progress.getDeletedPosts()));
+            progress = forumDeletionService.deleteNextChunk(forumId);
+        }
+
+        LOGGER.info(String.format("Posts for forum %d deleted: %d posts, %d attachments.",
+                forumId, progress.getDeletedPosts(), progress.getDeletedAttachments()));
     }
 }
@@ -81,6 +81,12 @@ public class PostController {
         return new ResponseEntity<>(postForumId, HttpStatus.OK);
     }
 
+    @GetMapping("/{postId}/summary")
+    public ResponseEntity<PostSummaryDTO> getPostSummary(@PathVariable Long postId) {
+        PostSummaryDTO postSummary = postService.getPostSummary(postId);
+        return new ResponseEntity<>(postSummary, HttpStatus.OK);
+    }
+
     @GetMapping("/isAuthor/{postId}/{authorId}")
     public ResponseEntity<IsPostAuthorDTO> isPostAuthor(@PathVariable("postId") Long postId,
                                                         @PathVariable("authorId") Long authorId){
@@ -11,5 +11,7 @@ import java.util.List;
 @Builder
 public class PostDeletionDTO {
     private Long postId;
+    // Set instead of postId when a whole chunk of posts is deleted at once
+    private List<Long> postIds;
 }
 
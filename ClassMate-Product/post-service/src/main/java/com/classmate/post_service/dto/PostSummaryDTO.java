@@ -0,0 +1,20 @@
+package com.classmate.post_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What other services need to reference a post in their own events.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostSummaryDTO {
+    private Long postId;
+    private Long forumId;
+    private Long authorId;
+    private String title;
+}
@@ -10,6 +10,8 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Builder
 public class CommentCountEvent {
+    // Absolute count, only sent by comment-service versions from before delta events
     private Long commentCount;
     private Long postId;
+    private Long delta;
 }
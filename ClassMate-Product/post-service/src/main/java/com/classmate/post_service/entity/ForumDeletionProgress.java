@@ -0,0 +1,50 @@
+package com.classmate.post_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of the deletion of a forum's posts. Each chunk commits together with the id of
+ * its last post, so a redelivered or retried deletion resumes after it instead of starting over.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "forum_deletion_progress")
+public class ForumDeletionProgress {
+
+    @Id
+    private Long forumId;
+
+    /**
+     * Highest post id deleted so far, posts are deleted in id order.
+     */
+    @Column(nullable = false)
+    private Long lastPostId;
+
+    @Column(nullable = false)
+    private long deletedPosts;
+
+    @Column(nullable = false)
+    private long deletedAttachments;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+}
@@ -1,10 +1,10 @@
 package com.classmate.post_service.publisher;
 
+import com.classmate.messaging.outbox.OutboxPublisher;
 import com.classmate.post_service.dto.CreatePostEvent;
 import com.classmate.post_service.dto.PostDeletionDTO;
 import com.classmate.post_service.dto.filedtos.FileDeletionDTO;
 import com.classmate.post_service.dto.filedtos.PostFileDeletionDTO;
-import com.classmate.post_service.dto.notification.GetForumIdNotificationDTOResponse;
 import com.classmate.post_service.dto.notification.MilestoneReachedEventDTO;
 import com.classmate.post_service.dto.notification.PostAuthorResponseEventDTO;
 import org.slf4j.Logger;
@@ -17,6 +17,7 @@ import org.springframework.stereotype.Service;
 public class PostPublisher {
 
     private final RabbitTemplate rabbitTemplate;
+    private final OutboxPublisher outboxPublisher;
     private Logger LOGGER = LoggerFactory.getLogger(PostPublisher.class);
 
     @Value("${rabbitmq.post-exchange.name}")
@@ -45,26 +46,21 @@ public class PostPublisher {
     @Value("${rabbitmq.notifications.milestone.routing-key}")
     private String milestoneNotificationRoutingKey;
 
-    // GET FORUM ID NOTIFICATIONS RESPONSE
-    @Value("${rabbitmq.file-exchange.get.forum.id}")
-    private String getForumIdExchange;
-    @Value("${rabbitmq.notifications.get.forum.id.response.routing-key}")
-    private String getForumIdNotificationRoutingKeyResponse;
-
     @Value("${rabbitmq.exchange.create-post-exchange.name}")
     private String createPostExchange;
 
     @Value("${rabbitmq.exchange.create-post.routing-key}")
     private String createPostRoutingKey;
 
-    public PostPublisher(RabbitTemplate rabbitTemplate) {
+    public PostPublisher(RabbitTemplate rabbitTemplate, OutboxPublisher outboxPublisher) {
         this.rabbitTemplate = rabbitTemplate;
+        this.outboxPublisher = outboxPublisher;
     }
 
     public void publishPostDeletion(PostDeletionDTO postDeletionDTO) {
         if (postDeletionDTO != null) {
             LOGGER.info(String.format("Post deletion event sent to RabbitMQ -> %s", postDeletionDTO.toString()));
-            rabbitTemplate.convertAndSend(exchange, deletePostRoutingKey, postDeletionDTO);
+            outboxPublisher.publish(exchange, deletePostRoutingKey, postDeletionDTO);
         } else {
             LOGGER.error("PostDeletionDTO is null, skipping event publication");
         }
@@ -73,7 +69,7 @@ public class PostPublisher {
     public void publishPostAllFileDeleteEvent(PostFileDeletionDTO postFileDeletionDTO) {
         if (postFileDeletionDTO != null) {
             LOGGER.info(String.format("Post all file deletion event sent to RabbitMQ -> %s", postFileDeletionDTO.toString()));
-            rabbitTemplate.convertAndSend(fileExchange, deletePostAllFileRoutingKey, postFileDeletionDTO);
+            outboxPublisher.publish(fileExchange, deletePostAllFileRoutingKey, postFileDeletionDTO);
         } else {
             LOGGER.error("PostFileDeletionDTO is null, skipping event publication");
         }
@@ -82,7 +78,7 @@ public class PostPublisher {
     public void publishPostFileDeleteEvent(FileDeletionDTO event) {
         if (event != null) {
             LOGGER.info(String.format("Post file deletion event sent to RabbitMQ -> %s", event.getFileId().toString()));
-            rabbitTemplate.convertAndSend(fileExchange, deletePostFileRoutingKey, event);
+            outboxPublisher.publish(fileExchange, deletePostFileRoutingKey, event);
         } else {
             LOGGER.error("FileDeletionDTO is null, skipping event publication");
         }
@@ -95,12 +91,7 @@ public class PostPublisher {
 
     // VALORATIONS
     public void publishMilestoneReachedEvent(MilestoneReachedEventDTO event) {
-        rabbitTemplate.convertAndSend(notificationsExchange, milestoneNotificationRoutingKey, event);
-    }
-
-    // GET FORUM ID VALORATIONS
-    public void publishGetForumIdResponseEvent(GetForumIdNotificationDTOResponse event) {
-        rabbitTemplate.convertAndSend(getForumIdExchange, getForumIdNotificationRoutingKeyResponse, event);
+        outboxPublisher.publish(notificationsExchange, milestoneNotificationRoutingKey, event);
     }
 
 
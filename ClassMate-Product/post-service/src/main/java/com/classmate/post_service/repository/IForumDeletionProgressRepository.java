@@ -0,0 +1,21 @@
+package com.classmate.post_service.repository;
+
+import com.classmate.post_service.entity.ForumDeletionProgress;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+
+import java.util.Optional;
+
+public interface IForumDeletionProgressRepository extends JpaRepository<ForumDeletionProgress, Long> {
+
+    /**
+     * Finds the checkpoint of a forum deletion and locks it until the end of the transaction,
+     * so two deliveries of the same deletion work through the chunks one after the other.
+     *
+     * @param forumId the forum ID
+     * @return the checkpoint, empty if the deletion has not started
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ForumDeletionProgress> findWithLockByForumId(Long forumId);
+}
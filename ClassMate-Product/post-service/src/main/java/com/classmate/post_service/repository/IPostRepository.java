@@ -1,11 +1,12 @@
 package com.classmate.post_service.repository;
 
 import com.classmate.post_service.entity.Post;
-import feign.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
@@ -39,4 +40,64 @@ public interface IPostRepository extends JpaRepository<Post, Long> {
 
     Page<Post> findAllByAuthor_UserId(Long userId, Pageable pageable);
 
+    /**
+     * Adds a delta to the comment count of a post in the database, so concurrent and
+     * reordered updates add up instead of overwriting each other.
+     *
+     * @param postId the post ID
+     * @param delta the number of comments added (negative when removed)
+     * @return the number of posts updated, 0 if the post no longer exists
+     */
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = COALESCE(p.commentCount, 0) + :delta WHERE p.id = :postId")
+    int incrementCommentCount(@Param("postId") Long postId, @Param("delta") long delta);
+
+    /**
+     * Overwrites the comment count of a post.
+     *
+     * @param postId the post ID
+     * @param commentCount the new comment count
+     * @return the number of posts updated, 0 if the post no longer exists
+     */
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = :commentCount WHERE p.id = :postId")
+    int setCommentCount(@Param("postId") Long postId, @Param("commentCount") long commentCount);
+
+    /**
+     * Finds the ids of a forum's posts after a given id, in id order, so a forum can be
+     * walked in chunks without offsets shifting as posts are deleted.
+     *
+     * @param forumId the forum ID
+     * @param afterId the last post ID of the previous chunk, 0 for the first one
+     * @param pageable the chunk size
+     * @return the post IDs of the chunk
+     */
+    @Query("SELECT p.id FROM Post p WHERE p.forumId = :forumId AND p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsByForumIdAfter(@Param("forumId") Long forumId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT a.id FROM Post p JOIN p.attachments a WHERE p.id IN :postIds")
+    List<Long> findAttachmentIdsByPostIds(@Param("postIds") List<Long> postIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM attachments WHERE post_id IN (:postIds)", nativeQuery = true)
+    int deleteAttachmentsByPostIds(@Param("postIds") List<Long> postIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM post_upvotes_by_user_id WHERE post_id IN (:postIds)", nativeQuery = true)
+    int deleteUpvotesByPostIds(@Param("postIds") List<Long> postIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM post_downvotes_by_user_id WHERE post_id IN (:postIds)", nativeQuery = true)
+    int deleteDownvotesByPostIds(@Param("postIds") List<Long> postIds);
+
+    /**
+     * Deletes posts in one statement. Attachments and votes are not cascaded, delete them first.
+     *
+     * @param postIds the post IDs
+     * @return the number of posts deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Post p WHERE p.id IN :postIds")
+    int deleteByIds(@Param("postIds") List<Long> postIds);
+
 }
@@ -0,0 +1,15 @@
+package com.classmate.post_service.service;
+
+import com.classmate.post_service.entity.ForumDeletionProgress;
+
+public interface IForumDeletionService {
+
+    /**
+     * Deletes the next chunk of posts of a forum, with their attachments and votes, in its own
+     * transaction, and publishes one file deletion and one post deletion event for the chunk.
+     *
+     * @param forumId the forum ID
+     * @return the checkpoint after the chunk, completed once the forum has no posts left
+     */
+    ForumDeletionProgress deleteNextChunk(Long forumId);
+}
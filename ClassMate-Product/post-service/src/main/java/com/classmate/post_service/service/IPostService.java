@@ -72,5 +72,13 @@ public interface IPostService {
 
     Long getPostForumId(Long postId);
 
+    /**
+     * Retrieves the forum, author and title of a post.
+     *
+     * @param postId the ID of the post
+     * @return the post summary
+     */
+    PostSummaryDTO getPostSummary(Long postId);
+
     List<PostResponseDTO> getPostsBySubscribedForums(RequestByForumsDTO requestByForumsDTO, Long userId, int page, int size);
 }
@@ -0,0 +1,76 @@
+package com.classmate.post_service.service.impl;
+
+import com.classmate.post_service.dto.PostDeletionDTO;
+import com.classmate.post_service.dto.filedtos.PostFileDeletionDTO;
+import com.classmate.post_service.entity.ForumDeletionProgress;
+import com.classmate.post_service.publisher.PostPublisher;
+import com.classmate.post_service.repository.IForumDeletionProgressRepository;
+import com.classmate.post_service.repository.IPostRepository;
+import com.classmate.post_service.service.IForumDeletionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class ForumDeletionServiceImpl implements IForumDeletionService {
+
+    private final IPostRepository postRepository;
+    private final IForumDeletionProgressRepository forumDeletionProgressRepository;
+    private final PostPublisher postPublisher;
+
+    @Value("${forum-deletion.chunk-size}")
+    private int chunkSize;
+
+    public ForumDeletionServiceImpl(IPostRepository postRepository,
+                                    IForumDeletionProgressRepository forumDeletionProgressRepository,
+                                    PostPublisher postPublisher) {
+        this.postRepository = postRepository;
+        this.forumDeletionProgressRepository = forumDeletionProgressRepository;
+        this.postPublisher = postPublisher;
+    }
+
+    @Override
+    @Transactional
+    public ForumDeletionProgress deleteNextChunk(Long forumId) {
+        ForumDeletionProgress progress = forumDeletionProgressRepository.findWithLockByForumId(forumId)
+                .orElseGet(() -> ForumDeletionProgress.builder()
+                        .forumId(forumId)
+                        .lastPostId(0L)
+                        .startedAt(LocalDateTime.now())
+                        .build());
+        if (progress.isCompleted()) {
+            return progress;
+        }
+
+        List<Long> postIds = postRepository.findIdsByForumIdAfter(forumId, progress.getLastPostId(), PageRequest.of(0, chunkSize));
+        if (postIds.isEmpty()) {
+            progress.setCompleted(true);
+        } else {
+            List<Long> attachmentIds = postRepository.findAttachmentIdsByPostIds(postIds);
+            if (!attachmentIds.isEmpty()) {
+                postPublisher.publishPostAllFileDeleteEvent(PostFileDeletionDTO.builder()
+                        .attachmentIdsToDelete(attachmentIds)
+                        .build());
+            }
+            postPublisher.publishPostDeletion(PostDeletionDTO.builder()
+                    .postIds(postIds)
+                    .build());
+
+            // Bulk deletes skip the entity cascades, so the collections go first
+            postRepository.deleteAttachmentsByPostIds(postIds);
+            postRepository.deleteUpvotesByPostIds(postIds);
+            postRepository.deleteDownvotesByPostIds(postIds);
+            postRepository.deleteByIds(postIds);
+
+            progress.setLastPostId(postIds.get(postIds.size() - 1));
+            progress.setDeletedPosts(progress.getDeletedPosts() + postIds.size());
+            progress.setDeletedAttachments(progress.getDeletedAttachments() + attachmentIds.size());
+        }
+        progress.setUpdatedAt(LocalDateTime.now());
+        return forumDeletionProgressRepository.save(progress);
+    }
+}
@@ -25,6 +25,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
@@ -180,6 +181,7 @@ public class PostServiceImpl implements IPostService {
      * {@inheritDoc}
      */
     @Override
+    @Transactional
     public void updatePost(Long id, PostUpdateDTO postUpdateDTO) {
         LOGGER.info("Updating post by id...");
         validatePost(postUpdateDTO.getTitle(), postUpdateDTO.getBody());
@@ -209,6 +211,7 @@ public class PostServiceImpl implements IPostService {
      * {@inheritDoc}
      */
     @Override
+    @Transactional
     public void deletePost(Long id, Long userId, String authorizationHeader) {
         LOGGER.info("Deleting post by id...");
         Post post = postRepository.findById(id)
@@ -257,6 +260,19 @@ public class PostServiceImpl implements IPostService {
         return post.getForumId();
     }
 
+    @Override
+    public PostSummaryDTO getPostSummary(Long postId) {
+        Post post = postRepository.findById(postId)
+                .orElseThrow(() -> new PostNotFoundException("Post not found with id: " + postId));
+
+        return PostSummaryDTO.builder()
+                .postId(post.getId())
+                .forumId(post.getForumId())
+                .authorId(post.getAuthor().getUserId())
+                .title(post.getTitle())
+                .build();
+    }
+
     public void addAttachments(Post post, List<MultipartFile> filesToAdd) {
         for (MultipartFile file : filesToAdd) {
             Long fileId = Objects.requireNonNull(fileServiceClient.uploadFile(file).getBody()).getFileId();